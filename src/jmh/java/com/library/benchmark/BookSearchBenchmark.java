@@ -0,0 +1,59 @@
+package com.library.benchmark;
+
+import com.library.mapper.BookMapperImpl;
+import com.library.rest.dto.BookDto;
+import com.library.search.BookSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Search latency over a catalog in which every book shares its title and author words, the worst case for the
+ * candidate scan: only the volume number is rare. Run larger catalogs with {@code -p catalogSize=5000000} and a
+ * heap to match.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BookSearchBenchmark {
+
+    @Param("1000000")
+    private int catalogSize;
+
+    @Param({"the", "dar", "left hand", "le guin darkness", "volume 4242", "978-0-441"})
+    private String query;
+
+    private BookSearchIndex index;
+
+    @Setup
+    public void setUp() {
+
+        final var bookMapper = new BookMapperImpl();
+        index = new BookSearchIndex();
+        index.load(() -> LongStream.rangeClosed(1, catalogSize)
+                .mapToObj(Fixtures::book)
+                .map(bookMapper::toDto)
+                .iterator());
+    }
+
+    @Benchmark
+    public List<BookDto> search() {
+
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,118 @@
+package com.library.benchmark;
+
+import com.library.cache.CatalogGeneration;
+import com.library.config.CacheConfig;
+import com.library.config.LibraryCacheProperties;
+import com.library.config.LibraryCacheProperties.CacheSpec;
+import com.library.mapper.BookMapperImpl;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import com.library.service.BookService;
+import com.library.service.impl.CachedBookService;
+import com.library.service.impl.DefaultBookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static com.library.constants.CacheNames.ALL_BOOKS;
+import static com.library.constants.CacheNames.BOOKS;
+import static com.library.constants.CacheNames.BOOK_IDS_BY_ISBN;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hit paths of {@link CachedBookService} through the real Spring caching proxy and Caffeine caches configured as in
+ * {@code application.yaml}. The delegate is only consulted to warm the caches.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CachedBookServiceBenchmark {
+
+    private static final long BOOK_ID = 42L;
+    private static final String ISBN = "978-0-441-47812-2";
+
+    private AnnotationConfigApplicationContext context;
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+
+        final var bookMapper = new BookMapperImpl();
+        final var delegate = mock(DefaultBookService.class);
+        final var book = bookMapper.toDto(Fixtures.book(BOOK_ID));
+        final var page = new PaginatedResult<BookDto>(LongStream.rangeClosed(1, 10)
+                .mapToObj(Fixtures::book)
+                .map(bookMapper::toDto)
+                .toList(), 10_000L, 1, 10, true);
+        when(delegate.getBookById(anyLong())).thenReturn(book);
+        when(delegate.getBookByIsbn(anyString())).thenReturn(book);
+        when(delegate.getAllBooks(1, 10, TotalMode.EXACT)).thenReturn(page);
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("library.cache.enabled", "true")));
+        context.registerBean(LibraryCacheProperties.class, () -> new LibraryCacheProperties(true,
+                new CacheSpec(1_000L, Duration.ofMinutes(10), null),
+                Map.of(BOOKS, new CacheSpec(10_000L, Duration.ofMinutes(30), Duration.ofMinutes(10)),
+                        BOOK_IDS_BY_ISBN, new CacheSpec(100_000L, null, Duration.ofHours(1)),
+                        ALL_BOOKS, new CacheSpec(500L, Duration.ofMinutes(5), Duration.ofMinutes(1)))));
+        context.registerBean(DefaultBookService.class, () -> delegate);
+        context.registerBean(TransactionOperations.class, TransactionOperations::withoutTransaction);
+        context.register(CacheConfig.class, CatalogGeneration.class, CachedBookService.class);
+        context.refresh();
+
+        bookService = context.getBean(BookService.class);
+        bookService.getBookById(BOOK_ID);
+        bookService.getBookByIsbn(ISBN);
+        bookService.getAllBooks(1, 10, TotalMode.EXACT);
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public BookDto getBookById() {
+
+        return bookService.getBookById(BOOK_ID);
+    }
+
+    @Benchmark
+    public BookDto getBookByIsbn() {
+
+        return bookService.getBookByIsbn(ISBN);
+    }
+
+    @Benchmark
+    public PaginatedResult<BookDto> getAllBooks() {
+
+        return bookService.getAllBooks(1, 10, TotalMode.EXACT);
+    }
+}
@@ -0,0 +1,112 @@
+package com.library.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.library.exception.ApiErrorResponse;
+import com.library.exception.BookAlreadyLoanedException;
+import com.library.exception.BookNotFoundException;
+import com.library.exception.GlobalExceptionHandler;
+import com.library.rest.dto.BookDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses built by {@link GlobalExceptionHandler}. With {@code logLevel=INFO} the handler's log output is
+ * formatted in full, stack traces included, and written to a discarding stream, so the cost of logging shows up
+ * next to the cost of building the response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    @Param({"OFF", "INFO"})
+    private String logLevel;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private BookNotFoundException bookNotFound;
+    private BookAlreadyLoanedException bookAlreadyLoaned;
+    private MethodArgumentNotValidException invalidBook;
+    private IllegalStateException unexpected;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        final var loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        final var encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d{ISO8601} %5level [%thread] %logger{40} : %msg%n");
+        encoder.start();
+        final var appender = new OutputStreamAppender<ILoggingEvent>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        final var root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.toLevel(logLevel));
+
+        bookNotFound = new BookNotFoundException("Book with id 42 not found");
+        bookAlreadyLoaned = new BookAlreadyLoanedException("Book with id 42 is already loaned");
+        unexpected = new IllegalStateException("Connection reset");
+
+        final var bindingResult = new BeanPropertyBindingResult(new BookDto(null, "", "", "", false, null), "book");
+        bindingResult.addError(new FieldError("book", "title", "Title is mandatory"));
+        bindingResult.addError(new FieldError("book", "author", "Author is mandatory"));
+        bindingResult.addError(new FieldError("book", "isbn", "ISBN is mandatory"));
+        final var parameter = new MethodParameter(ErrorResponseBenchmark.class.getMethod("validation"), -1);
+        invalidBook = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> notFound() {
+
+        return handler.handleBookNotFoundException(bookNotFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> alreadyLoaned() {
+
+        return handler.handleBookAlreadyLoanedException(bookAlreadyLoaned);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> validation() {
+
+        return handler.handleValidationExceptions(invalidBook);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorResponse> generic() {
+
+        return handler.handleGeneric(unexpected);
+    }
+}
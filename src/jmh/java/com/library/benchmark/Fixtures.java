@@ -0,0 +1,62 @@
+package com.library.benchmark;
+
+import com.library.repository.entity.BookEntity;
+import com.library.repository.entity.LoanEntity;
+import com.library.repository.entity.UserEntity;
+import com.library.repository.projection.LoanRow;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Deterministic sample data shared by the benchmarks, so results stay comparable across commits.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Fixtures {
+
+    static final ZonedDateTime LOAN_DATE = ZonedDateTime.of(2025, 3, 1, 10, 30, 0, 0, ZoneOffset.UTC);
+
+    static BookEntity book(long id) {
+
+        return BookEntity.builder()
+                .id(id)
+                .title("The Left Hand of Darkness, volume " + id)
+                .author("Ursula K. Le Guin")
+                .isbn("978-0-441-47812-" + id % 10)
+                .isLoaned(id % 3 == 0)
+                .build();
+    }
+
+    static UserEntity user(long id) {
+
+        final var user = new UserEntity();
+        user.setId(id);
+        user.setFirstName("Genly");
+        user.setLastName("Ai " + id);
+        user.setEmail("genly.ai" + id + "@ekumen.org");
+        return user;
+    }
+
+    static LoanEntity loan(long id) {
+
+        return LoanEntity.builder()
+                .id(id)
+                .book(book(id))
+                .user(user(id % 100))
+                .loanDate(LOAN_DATE)
+                .dueDate(LOAN_DATE.plusDays(14))
+                .returnDate(id % 2 == 0 ? LOAN_DATE.plusDays(7) : null)
+                .build();
+    }
+
+    static LoanRow loanRow(long id) {
+
+        final var book = book(id);
+        final var user = user(id % 100);
+        return new LoanRow(id, book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getIsLoaned(),
+                user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                LOAN_DATE, LOAN_DATE.plusDays(14), id % 2 == 0 ? LOAN_DATE.plusDays(7) : null);
+    }
+}
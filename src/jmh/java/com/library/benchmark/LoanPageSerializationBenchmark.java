@@ -0,0 +1,73 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.library.mapper.LoanMapper;
+import com.library.mapper.LoanMapperImpl;
+import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.PaginatedResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serializes a page of loans the way {@code GET /library/loans} does. The mapper is built with Spring's builder and
+ * the same defaults Boot applies, so the numbers track what the controller pays per response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanPageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PaginatedResult<LoanDto> page;
+    private JavaType pageType;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        pageType = objectMapper.getTypeFactory().constructParametricType(PaginatedResult.class, LoanDto.class);
+        final LoanMapper loanMapper = new LoanMapperImpl();
+        final var loans = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(Fixtures::loanRow)
+                .map(loanMapper::rowToDto)
+                .toList();
+        page = new PaginatedResult<>(loans, 10_000L, 1, pageSize, true);
+        json = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PaginatedResult<LoanDto> deserialize() throws Exception {
+
+        return objectMapper.readValue(json, pageType);
+    }
+}
@@ -0,0 +1,102 @@
+package com.library.benchmark;
+
+import com.library.mapper.BookMapper;
+import com.library.mapper.BookMapperImpl;
+import com.library.mapper.LoanMapper;
+import com.library.mapper.LoanMapperImpl;
+import com.library.mapper.UserMapper;
+import com.library.mapper.UserMapperImpl;
+import com.library.repository.entity.BookEntity;
+import com.library.repository.entity.LoanEntity;
+import com.library.repository.entity.UserEntity;
+import com.library.repository.projection.LoanRow;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final LoanMapper loanMapper = new LoanMapperImpl();
+
+    private BookEntity bookEntity;
+    private BookDto bookDto;
+    private UserEntity userEntity;
+    private UserDto userDto;
+    private LoanEntity loanEntity;
+    private LoanDto loanDto;
+    private LoanRow loanRow;
+
+    @Setup
+    public void setUp() {
+
+        bookEntity = Fixtures.book(42);
+        bookDto = bookMapper.toDto(bookEntity);
+        userEntity = Fixtures.user(7);
+        userDto = userMapper.toDto(userEntity);
+        loanEntity = Fixtures.loan(42);
+        loanDto = loanMapper.toDto(loanEntity);
+        loanRow = Fixtures.loanRow(42);
+    }
+
+    @Benchmark
+    public BookDto bookToDto() {
+
+        return bookMapper.toDto(bookEntity);
+    }
+
+    @Benchmark
+    public BookEntity bookToEntity() {
+
+        return bookMapper.toEntity(bookDto);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+
+        return userMapper.toDto(userEntity);
+    }
+
+    @Benchmark
+    public UserEntity userToEntity() {
+
+        return userMapper.toEntity(userDto);
+    }
+
+    @Benchmark
+    public LoanDto loanToDto() {
+
+        return loanMapper.toDto(loanEntity);
+    }
+
+    @Benchmark
+    public LoanEntity loanToEntity() {
+
+        return loanMapper.toEntity(loanDto);
+    }
+
+    @Benchmark
+    public LoanDto loanRowToDto() {
+
+        return loanMapper.rowToDto(loanRow);
+    }
+}
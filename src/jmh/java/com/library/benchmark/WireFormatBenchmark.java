@@ -0,0 +1,128 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.library.mapper.LoanMapper;
+import com.library.mapper.LoanMapperImpl;
+import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.PaginatedResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes and decodes a page of loans in each wire format the API negotiates, with and without Blackbird. The
+ * {@code bytes} counter divided by the operation rate gives the payload size per page; the setup also prints the
+ * raw and gzipped sizes, which is what a client with {@code Accept-Encoding: gzip} receives.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PaginatedResult<LoanDto> page;
+    private JavaType pageType;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        final var builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        pageType = objectMapper.getTypeFactory().constructParametricType(PaginatedResult.class, LoanDto.class);
+        final LoanMapper loanMapper = new LoanMapperImpl();
+        final var loans = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(Fixtures::loanRow)
+                .map(loanMapper::rowToDto)
+                .toList();
+        page = new PaginatedResult<>(loans, 10_000L, 1, pageSize, true);
+        encoded = objectMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s page of %d loans: %d bytes, %d bytes gzipped%n", format, pageSize, encoded.length,
+                gzipped(encoded));
+    }
+
+    @Benchmark
+    public byte[] serialize(Bytes bytes) throws Exception {
+
+        final var result = objectMapper.writeValueAsBytes(page);
+        bytes.bytes += result.length;
+        return result;
+    }
+
+    @Benchmark
+    public PaginatedResult<LoanDto> deserialize() throws Exception {
+
+        return objectMapper.readValue(encoded, pageType);
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+
+            bytes = 0;
+        }
+    }
+
+    private static JsonFactory factory(String format) {
+
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    private static int gzipped(byte[] bytes) throws Exception {
+
+        final var out = new ByteArrayOutputStream();
+        try (final var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.library.audit;
+
+import java.time.Instant;
+
+/**
+ * One row of the audit trail.
+ *
+ * @param action     what happened
+ * @param entityId   id of the book or user, or of the loan for {@link Action#BOOK_LOANED} and
+ *                   {@link Action#BOOK_REFUNDED}
+ * @param occurredAt when the change was committed
+ */
+public record AuditEvent(Action action, Long entityId, Instant occurredAt) {
+
+    public enum Action {
+        BOOK_ADDED, BOOK_DELETED, USER_ADDED, USER_DELETED, BOOK_LOANED, BOOK_REFUNDED
+    }
+}
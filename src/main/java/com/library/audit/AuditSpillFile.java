@@ -0,0 +1,160 @@
+package com.library.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Local overflow for audit events the database could not take: one {@code epochMillis;ACTION;entityId} line per
+ * event. Replaying moves the file aside first, so events spilled during a replay start a new file, and deletes it
+ * only once every batch was written.
+ * <p>
+ * The number of lines written so far is recorded after every batch, so a replay interrupted by a failure resumes
+ * after the last written batch: only the batch in flight when the process died can be written twice. Lines that
+ * cannot be parsed, such as one torn by a crash, are moved to a quarantine file instead of failing the replay.
+ */
+@Slf4j
+public class AuditSpillFile {
+
+    private final Path spill;
+    private final Path replay;
+    private final Path progress;
+    private final Path quarantine;
+
+    public AuditSpillFile(Path spill) {
+
+        this.spill = spill;
+        this.replay = spill.resolveSibling(spill.getFileName() + ".replay");
+        this.progress = spill.resolveSibling(spill.getFileName() + ".replay.progress");
+        this.quarantine = spill.resolveSibling(spill.getFileName() + ".quarantine");
+    }
+
+    public synchronized void append(Collection<AuditEvent> events) throws IOException {
+
+        final var lines = new ArrayList<String>(events.size());
+        for (final var event : events) {
+            lines.add(event.occurredAt().toEpochMilli() + ";" + event.action() + ";" + event.entityId());
+        }
+        Files.createDirectories(spill.toAbsolutePath().getParent());
+        Files.write(spill, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public boolean isEmpty() {
+
+        return !Files.exists(spill) && !Files.exists(replay);
+    }
+
+    /**
+     * Hands the spilled events to {@code writer} in batches of {@code batchSize}, resuming after the last batch a
+     * previous replay wrote, and deletes them once all were written. Returns the number of events replayed.
+     */
+    public long replay(int batchSize, BatchWriter writer) throws IOException {
+
+        synchronized (this) {
+            if (!Files.exists(replay)) {
+                if (!Files.exists(spill)) {
+                    return 0;
+                }
+                Files.deleteIfExists(progress);
+                Files.move(spill, replay, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        var replayed = 0L;
+        final var written = readProgress();
+        // Malformed input is replaced rather than rejected, so a garbled line ends up in quarantine.
+        try (var reader = new BufferedReader(new InputStreamReader(Files.newInputStream(replay), StandardCharsets.UTF_8))) {
+            var position = 0L;
+            while (position < written && reader.readLine() != null) {
+                position++;
+            }
+
+            final var batch = new ArrayList<AuditEvent>(batchSize);
+            final var unparseable = new ArrayList<String>();
+            var line = reader.readLine();
+            while (line != null) {
+                position++;
+                final var event = parse(line);
+                if (event == null) {
+                    unparseable.add(line);
+                } else {
+                    batch.add(event);
+                }
+                line = reader.readLine();
+                if (batch.size() == batchSize || line == null) {
+                    if (!batch.isEmpty()) {
+                        writer.write(batch);
+                        replayed += batch.size();
+                        batch.clear();
+                    }
+                    quarantine(unparseable);
+                    writeProgress(position);
+                }
+            }
+        }
+        Files.delete(replay);
+        Files.deleteIfExists(progress);
+        return replayed;
+    }
+
+    private long readProgress() throws IOException {
+
+        if (!Files.exists(progress)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(progress, StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring unreadable audit replay progress in {}, replaying {} from the start", progress, replay);
+            return 0;
+        }
+    }
+
+    private void writeProgress(long position) throws IOException {
+
+        final var next = progress.resolveSibling(progress.getFileName() + ".tmp");
+        Files.writeString(next, Long.toString(position), StandardCharsets.UTF_8);
+        Files.move(next, progress, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void quarantine(List<String> lines) throws IOException {
+
+        if (lines.isEmpty()) {
+            return;
+        }
+        Files.write(quarantine, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.warn("Moved {} unreadable spilled audit events to {}", lines.size(), quarantine);
+        lines.clear();
+    }
+
+    private static AuditEvent parse(String line) {
+
+        final var fields = line.split(";");
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            return new AuditEvent(AuditEvent.Action.valueOf(fields[1]), Long.valueOf(fields[2]),
+                    Instant.ofEpochMilli(Long.parseLong(fields[0])));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        void write(List<AuditEvent> batch);
+    }
+}
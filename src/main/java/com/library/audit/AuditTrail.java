@@ -0,0 +1,230 @@
+package com.library.audit;
+
+import com.library.config.AuditProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
+import com.library.event.UserChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit trail of catalog, user and loan mutations. Events are captured after commit, so auditing
+ * adds no statement to the audited transaction and no time to the locks it holds, and are queued in a lock-free
+ * {@link MpmcRingBuffer}. A single writer thread drains the buffer into {@code audit_events} with batched inserts,
+ * waiting up to the flush interval for a batch to fill.
+ * <p>
+ * When the buffer is full, the committing thread spills the event to the {@link AuditSpillFile}; when an insert
+ * fails, the writer spills the batch and pauses. Spilled events are replayed into the table whenever the buffer is
+ * empty. An event is only lost when it can be neither inserted nor spilled. Any failure inside the writer loop is
+ * handled this way, so the writer thread keeps running.
+ */
+@Slf4j
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    static final String INSERT = "insert into audit_events (action, entity_id, occurred_at) values (?, ?, ?)";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final AuditProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final MpmcRingBuffer<AuditEvent> buffer;
+    private final AuditSpillFile spillFile;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditTrail(AuditProperties properties, JdbcTemplate jdbcTemplate) {
+
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new MpmcRingBuffer<>(properties.bufferCapacity());
+        this.spillFile = new AuditSpillFile(properties.spillFile());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+
+        if (event.remote()) {
+            return;
+        }
+        switch (event.type()) {
+            case ADDED -> record(AuditEvent.Action.BOOK_ADDED, event.bookId());
+            case REMOVED -> record(AuditEvent.Action.BOOK_DELETED, event.bookId());
+            case LOANED, RETURNED -> {
+                // Audited through the loan's own event.
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+
+        record(event.type() == UserChangedEvent.Type.ADDED ? AuditEvent.Action.USER_ADDED : AuditEvent.Action.USER_DELETED,
+                event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+
+        if (event.remote()) {
+            return;
+        }
+        record(event.type() == LoanChangedEvent.Type.OPENED ? AuditEvent.Action.BOOK_LOANED : AuditEvent.Action.BOOK_REFUNDED,
+                event.loanId());
+    }
+
+    @Override
+    public void start() {
+
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("audit-writer").start(this::drain);
+    }
+
+    /**
+     * Lets the writer empty the buffer; whatever it cannot insert in time is spilled.
+     */
+    @Override
+    public void stop() {
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        final var remaining = new ArrayList<AuditEvent>();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so that requests in flight during shutdown are still audited.
+     */
+    @Override
+    public int getPhase() {
+
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public int getBuffered() {
+
+        return buffer.size();
+    }
+
+    public long getWritten() {
+
+        return written.sum();
+    }
+
+    public long getSpilled() {
+
+        return spilled.sum();
+    }
+
+    public long getDropped() {
+
+        return dropped.sum();
+    }
+
+    private void record(AuditEvent.Action action, Long entityId) {
+
+        final var event = new AuditEvent(action, entityId, Instant.now());
+        if (!buffer.offer(event)) {
+            spill(List.of(event));
+        }
+    }
+
+    private void drain() {
+
+        final var batch = new ArrayList<AuditEvent>(properties.batchSize());
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, properties.batchSize());
+            if (batch.isEmpty()) {
+                replaySpilled();
+                pause(properties.flushInterval());
+                continue;
+            }
+            if (batch.size() < properties.batchSize() && running) {
+                pause(properties.flushInterval());
+                buffer.drainTo(batch, properties.batchSize() - batch.size());
+            }
+            try {
+                insert(batch);
+            } catch (RuntimeException e) {
+                log.warn("Could not write {} audit events, spilling them: {}", batch.size(), e.getMessage());
+                spill(batch);
+                pause(properties.retryDelay());
+            }
+            batch.clear();
+        }
+    }
+
+    private void replaySpilled() {
+
+        if (spillFile.isEmpty()) {
+            return;
+        }
+        try {
+            final var replayed = spillFile.replay(properties.batchSize(), this::insert);
+            log.info("Replayed {} spilled audit events", replayed);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not replay spilled audit events: {}", e.getMessage());
+            pause(properties.retryDelay());
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+
+        jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (statement, event) -> {
+            statement.setString(1, event.action().name());
+            statement.setLong(2, event.entityId());
+            statement.setTimestamp(3, Timestamp.from(event.occurredAt()));
+        });
+        written.add(batch.size());
+    }
+
+    private void spill(Collection<AuditEvent> events) {
+
+        try {
+            spillFile.append(events);
+            spilled.add(events.size());
+        } catch (IOException e) {
+            dropped.add(events.size());
+            log.error("Lost {} audit events, the spill file is not writable: {}", events.size(), e.getMessage());
+        }
+    }
+
+    private void pause(Duration duration) {
+
+        if (running) {
+            LockSupport.parkNanos(duration.toNanos());
+        }
+    }
+}
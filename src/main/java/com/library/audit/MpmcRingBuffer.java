@@ -0,0 +1,117 @@
+package com.library.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Bounded multi-producer multi-consumer queue without locks (Dmitry Vyukov's sequenced ring). Every slot carries a
+ * sequence number telling whether it is free for the producer at a given position or filled for the consumer at
+ * it; producers and consumers claim positions with one compare-and-set and never wait for each other, and
+ * {@link #offer} reports a full ring instead of blocking.
+ */
+public class MpmcRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public MpmcRingBuffer(int capacity) {
+
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(format("Capacity must be a power of two but was {0}", capacity));
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (var i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds {@code element} unless the ring is full.
+     */
+    public boolean offer(E element) {
+
+        var position = tail.get();
+        while (true) {
+            final var index = (int) (position & mask);
+            final var lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element, or returns {@code null} when the ring is empty.
+     */
+    public E poll() {
+
+        var position = head.get();
+        while (true) {
+            final var index = (int) (position & mask);
+            final var lag = sequences.get(index) - (position + 1);
+            if (lag == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final var element = slots.get(index);
+                    slots.set(index, null);
+                    sequences.set(index, position + capacity);
+                    return element;
+                }
+                position = head.get();
+            } else if (lag < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code maxElements} elements into {@code target} and returns how many were moved.
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+
+        var drained = 0;
+        while (drained < maxElements) {
+            final var element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Number of elements, exact only while no producer or consumer is active.
+     */
+    public int size() {
+
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    public int capacity() {
+
+        return capacity;
+    }
+}
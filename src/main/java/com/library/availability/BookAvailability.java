@@ -0,0 +1,190 @@
+package com.library.availability;
+
+import com.library.event.BookChangedEvent;
+import com.library.repository.projection.BookLoanState;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of the catalog's book ids and of the ids currently on loan, so availability checks and
+ * available-only listings are answered from memory.
+ * <p>
+ * Both bitmaps are maintained from committed {@link BookChangedEvent}s plus a bulk {@link #load load} at startup and
+ * whenever changes may have been missed. A load fills private bitmaps and replaces the current ones with them at
+ * the end; ids changed while it ran keep the state their events left, since the loaded rows may have been read
+ * before those changes committed.
+ * <p>
+ * Events from other instances only arrive through the PostgreSQL change notifications; without them each instance
+ * sees its own changes and the others' only at the next load.
+ */
+@Component
+public class BookAvailability {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock loading = new ReentrantLock();
+    private final Roaring64Bitmap catalog = new Roaring64Bitmap();
+    private final Roaring64Bitmap loaned = new Roaring64Bitmap();
+
+    private Set<Long> changedWhileLoading;
+
+    public Availability of(long bookId) {
+
+        lock.readLock().lock();
+        try {
+            if (!catalog.contains(bookId)) {
+                return Availability.UNKNOWN;
+            }
+            return loaned.contains(bookId) ? Availability.LOANED : Availability.AVAILABLE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of available books greater than {@code afterId}, in ascending order.
+     */
+    public List<Long> availableAfter(long afterId, int limit) {
+
+        if (afterId == Long.MAX_VALUE || limit <= 0) {
+            return List.of();
+        }
+        final var ids = new ArrayList<Long>(Math.min(limit, 1_024));
+        lock.readLock().lock();
+        try {
+            final var iterator = catalog.getLongIteratorFrom(afterId + 1);
+            while (iterator.hasNext() && ids.size() < limit) {
+                final var id = iterator.next();
+                if (!loaned.contains(id)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+
+        lock.readLock().lock();
+        try {
+            return catalog.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long loanedCount() {
+
+        lock.readLock().lock();
+        try {
+            return loaned.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void apply(BookChangedEvent event) {
+
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(event.bookId());
+            }
+            switch (event.type()) {
+                case ADDED -> {
+                    catalog.addLong(event.bookId());
+                    setLoaned(event.bookId(), Boolean.TRUE.equals(event.book().isLoaned()));
+                }
+                case REMOVED -> {
+                    catalog.removeLong(event.bookId());
+                    loaned.removeLong(event.bookId());
+                }
+                case LOANED -> setLoaned(event.bookId(), true);
+                case RETURNED -> setLoaned(event.bookId(), false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the bitmaps with {@code books}; loads run one at a time.
+     */
+    public void load(Iterable<BookLoanState> books) {
+
+        loading.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changedWhileLoading = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            final var loadedCatalog = new Roaring64Bitmap();
+            final var loadedLoaned = new Roaring64Bitmap();
+            try {
+                for (final var book : books) {
+                    loadedCatalog.addLong(book.id());
+                    if (Boolean.TRUE.equals(book.isLoaned())) {
+                        loadedLoaned.addLong(book.id());
+                    }
+                }
+                loadedCatalog.runOptimize();
+                loadedLoaned.runOptimize();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    for (final var changed : changedWhileLoading) {
+                        keep(changed, catalog, loadedCatalog);
+                        keep(changed, loaned, loadedLoaned);
+                    }
+                    catalog.clear();
+                    catalog.or(loadedCatalog);
+                    loaned.clear();
+                    loaned.or(loadedLoaned);
+                    changedWhileLoading = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    private static void keep(long bookId, Roaring64Bitmap current, Roaring64Bitmap loaded) {
+
+        if (current.contains(bookId)) {
+            loaded.addLong(bookId);
+        } else {
+            loaded.removeLong(bookId);
+        }
+    }
+
+    private void setLoaned(long bookId, boolean isLoaned) {
+
+        if (changedWhileLoading != null) {
+            catalog.addLong(bookId);
+        } else if (!catalog.contains(bookId)) {
+            return;
+        }
+        if (isLoaned) {
+            loaned.addLong(bookId);
+        } else {
+            loaned.removeLong(bookId);
+        }
+    }
+
+    public enum Availability {
+        UNKNOWN, AVAILABLE, LOANED
+    }
+}
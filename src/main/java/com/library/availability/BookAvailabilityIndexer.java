@@ -0,0 +1,54 @@
+package com.library.availability;
+
+import com.library.event.BookChangedEvent;
+import com.library.event.CatalogResyncEvent;
+import com.library.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Rebuilds {@link BookAvailability} from the books table when the application is ready and after a
+ * {@link CatalogResyncEvent}, and keeps it current from committed loans and returns.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookAvailabilityIndexer {
+
+    private final BookAvailability bookAvailability;
+    private final BookRepository bookRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+
+        final var start = System.nanoTime();
+        try (var books = bookRepository.streamLoanStates()) {
+            bookAvailability.load(books::iterator);
+        }
+        log.info("Availability loaded with {} books, {} on loan, in {} ms", bookAvailability.size(),
+                bookAvailability.loanedCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads in a read-write transaction, which keeps the load on the primary: a lagging replica may not have the
+     * changes that were missed yet.
+     */
+    @EventListener
+    @Transactional
+    public void onResync(CatalogResyncEvent event) {
+
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+
+        bookAvailability.apply(event);
+    }
+}
@@ -0,0 +1,108 @@
+package com.library.cache;
+
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Payload of a cache notification: the sending instance and the book and loan changes it committed, e.g.
+ * {@code 3f2a...;L12,O31@1767225600000,R40,C30,D7}, or {@code 3f2a...;*} when the receivers should drop everything
+ * they derived from the database.
+ *
+ * @param origin      id of the sending instance, so that it can skip its own notifications
+ * @param changes     book changes to apply, without the added book itself
+ * @param loanChanges loans opened, with their due date, and closed
+ * @param resync      whether the receivers must invalidate all cached books and pages instead
+ */
+record CacheChangeMessage(String origin, List<BookChangedEvent> changes, List<LoanChangedEvent> loanChanges,
+                          boolean resync) {
+
+    /**
+     * PostgreSQL rejects notification payloads of 8000 bytes or more.
+     */
+    static final int MAX_PAYLOAD = 7_900;
+
+    private static final String RESYNC = "*";
+
+    /**
+     * Encodes a burst of changes into one payload. Repeated changes of the same kind to the same book collapse into
+     * one; a burst too large for a single notification becomes a resync, which is cheaper for the receivers than
+     * applying thousands of evictions.
+     */
+    static String encode(String origin, Collection<?> changes) {
+
+        final var tokens = new LinkedHashSet<String>();
+        for (final var change : changes) {
+            switch (change) {
+                case BookChangedEvent book -> tokens.add(code(book.type()) + book.bookId());
+                case LoanChangedEvent loan when loan.type() == LoanChangedEvent.Type.OPENED ->
+                        tokens.add("O" + loan.loanId() + "@" + loan.dueDate().toInstant().toEpochMilli());
+                case LoanChangedEvent loan -> tokens.add("C" + loan.loanId());
+                default -> throw new IllegalArgumentException(format("Cannot broadcast {0}", change));
+            }
+        }
+        final var payload = origin + ";" + String.join(",", tokens);
+        return payload.length() < MAX_PAYLOAD ? payload : resync(origin);
+    }
+
+    static String resync(String origin) {
+
+        return origin + ";" + RESYNC;
+    }
+
+    static CacheChangeMessage decode(String payload) {
+
+        final var separator = payload.indexOf(';');
+        if (separator < 0) {
+            throw new IllegalArgumentException(format("Malformed cache notification {0}", payload));
+        }
+        final var origin = payload.substring(0, separator);
+        final var body = payload.substring(separator + 1);
+        if (body.equals(RESYNC)) {
+            return new CacheChangeMessage(origin, List.of(), List.of(), true);
+        }
+
+        final var changes = new ArrayList<BookChangedEvent>();
+        final var loanChanges = new ArrayList<LoanChangedEvent>();
+        for (final var token : body.isEmpty() ? new String[0] : body.split(",")) {
+            if (token.charAt(0) == 'O') {
+                final var at = token.indexOf('@');
+                loanChanges.add(LoanChangedEvent.opened(Long.valueOf(token.substring(1, at)),
+                        ZonedDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(token.substring(at + 1))), ZoneId.systemDefault())));
+                continue;
+            }
+            if (token.charAt(0) == 'C') {
+                loanChanges.add(LoanChangedEvent.closed(Long.valueOf(token.substring(1))));
+                continue;
+            }
+            final var bookId = Long.valueOf(token.substring(1));
+            changes.add(switch (token.charAt(0)) {
+                case 'A' -> new BookChangedEvent(bookId, null, BookChangedEvent.Type.ADDED);
+                case 'D' -> BookChangedEvent.removed(bookId);
+                case 'L' -> BookChangedEvent.loaned(bookId);
+                case 'R' -> BookChangedEvent.returned(bookId);
+                default -> throw new IllegalArgumentException(format("Unknown change {0} in cache notification", token));
+            });
+        }
+        return new CacheChangeMessage(origin, changes, loanChanges, false);
+    }
+
+    private static String code(BookChangedEvent.Type type) {
+
+        return switch (type) {
+            case ADDED -> "A";
+            case REMOVED -> "D";
+            case LOANED -> "L";
+            case RETURNED -> "R";
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.library.cache;
+
+import com.library.event.BookChangedEvent;
+import com.library.event.CatalogResyncEvent;
+import com.library.rest.dto.BookDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+import static com.library.constants.CacheNames.BOOKS;
+import static com.library.constants.CacheNames.BOOK_IDS_BY_ISBN;
+
+/**
+ * Applies committed book changes to the caches: the single book entry is evicted and the catalog generation is
+ * advanced, which lazily invalidates the affected {@code all_books} pages. The ISBN mapping is written for added
+ * books and dropped for removed ones while the removed book is still cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final CatalogGeneration catalogGeneration;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+
+        final var books = cacheManager.getCache(BOOKS);
+        final var bookIds = cacheManager.getCache(BOOK_IDS_BY_ISBN);
+        if (event.type() == BookChangedEvent.Type.ADDED) {
+            if (bookIds != null) {
+                bookIds.put(event.book().isbn(), event.bookId());
+            }
+        } else if (books != null) {
+            final var removed = event.type() == BookChangedEvent.Type.REMOVED ? books.get(event.bookId(), BookDto.class) : null;
+            if (removed != null && bookIds != null) {
+                bookIds.evict(removed.isbn());
+            }
+            books.evict(event.bookId());
+        }
+        catalogGeneration.advance(event);
+    }
+
+    /**
+     * Drops every cached book and ISBN mapping and makes every cached page stale, for when changes may have been
+     * missed.
+     */
+    @EventListener(CatalogResyncEvent.class)
+    public void invalidateAll() {
+
+        for (final var name : List.of(BOOKS, BOOK_IDS_BY_ISBN)) {
+            final var cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        catalogGeneration.invalidateAll();
+    }
+}
@@ -0,0 +1,64 @@
+package com.library.cache;
+
+import com.library.event.BookChangedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Monotonic version of the book catalog. Every committed mutation advances the generation and is kept in a
+ * bounded change log, so a cached listing tagged with an older generation can be checked against the changes it
+ * missed instead of being dropped on every write.
+ */
+@Component
+public class CatalogGeneration {
+
+    static final int LOG_CAPACITY = 4096;
+
+    private final BookChangedEvent[] changes = new BookChangedEvent[LOG_CAPACITY];
+    private volatile long generation;
+    private long floor;
+
+    public long current() {
+
+        return generation;
+    }
+
+    public synchronized long advance(BookChangedEvent change) {
+
+        final var next = generation + 1;
+        changes[(int) (next % LOG_CAPACITY)] = change;
+        generation = next;
+        return next;
+    }
+
+    /**
+     * Advances the generation without recording what changed, which makes every older listing stale.
+     */
+    public synchronized long invalidateAll() {
+
+        final var next = generation + 1;
+        floor = next;
+        generation = next;
+        return next;
+    }
+
+    /**
+     * Returns the changes committed after {@code since}, or an empty optional when they are no longer all known
+     * (the log wrapped around or {@link #invalidateAll()} was called), in which case the caller must reload.
+     */
+    public synchronized Optional<List<BookChangedEvent>> changesSince(long since) {
+
+        if (since < floor || generation - since > LOG_CAPACITY) {
+            return Optional.empty();
+        }
+
+        final var result = new ArrayList<BookChangedEvent>((int) (generation - since));
+        for (var g = since + 1; g <= generation; g++) {
+            result.add(changes[(int) (g % LOG_CAPACITY)]);
+        }
+        return Optional.of(result);
+    }
+}
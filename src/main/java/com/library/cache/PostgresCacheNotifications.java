@@ -0,0 +1,312 @@
+package com.library.cache;
+
+import com.library.config.CacheNotificationProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.CatalogResyncEvent;
+import com.library.event.LoanChangedEvent;
+import com.library.mapper.BookMapper;
+import com.library.repository.BookRepository;
+import com.library.rest.dto.BookDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Keeps the book caches of all instances coherent through PostgreSQL LISTEN/NOTIFY, without a cache server.
+ * <p>
+ * Committed book changes are queued, collected for the coalesce window and sent with {@code pg_notify} on the
+ * primary. Every instance listens on the channel over a dedicated connection, outside the pool, and publishes the
+ * other instances' changes as {@link BookChangedEvent}s of its own, so the caches, the availability bitmaps and
+ * the search index all apply them; added books are read back from the primary first. Loan changes travel the same
+ * way for the overdue tracker. These events are marked remote and not sent on again.
+ * <p>
+ * Notifications sent while the listener is disconnected are lost, so every reconnect, and the first connect once
+ * the startup loads may have begun, publishes a {@link CatalogResyncEvent}.
+ * <p>
+ * The outbox is bounded: when it overflows, or a notification still cannot be sent after the configured attempts,
+ * the waiting changes are dropped and one resync is sent in their place once the database is back.
+ * <p>
+ * Changes are sent after their transaction commits, so an instance that dies in between loses them and the other
+ * instances keep the affected books until their cache entries expire or they resync. Calling {@code pg_notify}
+ * inside the committing transaction would close that window, as PostgreSQL delivers the notification on commit,
+ * but it would cost every writing transaction a statement and give up coalescing, so the window is accepted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "library.cache.notifications", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class PostgresCacheNotifications implements SmartLifecycle {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration MAX_RECONNECT_DELAY = Duration.ofMinutes(1);
+
+    private final CacheNotificationProperties properties;
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final TransactionOperations primaryReads;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final BlockingQueue<Object> outbox = new LinkedBlockingQueue<>();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    private volatile boolean running;
+    private volatile boolean ready;
+    private Thread publisher;
+    private Thread listener;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+
+        if (running && !event.remote()) {
+            enqueue(event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+
+        if (running && !event.remote()) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * A full outbox always holds a change the publisher has yet to take, so it sees the flag on its next burst.
+     */
+    private void enqueue(Object change) {
+
+        if (outbox.size() < properties.outboxCapacity()) {
+            outbox.add(change);
+        } else if (!overflowed.getAndSet(true)) {
+            log.warn("Cache invalidation outbox is full, the other instances will be asked to resync");
+        }
+    }
+
+    /**
+     * Runs before the indexes start their initial loads, so that a listener connecting before this point knows
+     * there is nothing to resync yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+
+        ready = true;
+    }
+
+    /**
+     * Fails the startup on anything but PostgreSQL, which is the only database that can deliver the notifications.
+     */
+    @Override
+    public void start() {
+
+        final var url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException(format("Cache notifications need a PostgreSQL database, but the data source is {0}", url));
+        }
+        running = true;
+        publisher = Thread.ofPlatform().daemon().name("cache-notifications-publisher").start(this::publish);
+        listener = Thread.ofPlatform().daemon().name("cache-notifications-listener").start(this::listen);
+        log.info("Exchanging cache invalidations on channel {} as {}", properties.channel(), origin);
+    }
+
+    @Override
+    public void stop() {
+
+        running = false;
+        publisher.interrupt();
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    /**
+     * Publishes the changes of a notification received on the channel; the instance's own notifications are
+     * skipped. Added books that are gone by now are skipped too, their removal follows.
+     */
+    void apply(String payload) {
+
+        final var message = CacheChangeMessage.decode(payload);
+        if (message.origin().equals(origin)) {
+            return;
+        }
+        if (message.resync()) {
+            eventPublisher.publishEvent(new CatalogResyncEvent());
+            return;
+        }
+        final var added = addedBooks(message.changes());
+        for (final var change : message.changes()) {
+            if (change.type() != BookChangedEvent.Type.ADDED) {
+                eventPublisher.publishEvent(change.toRemote());
+            } else if (added.containsKey(change.bookId())) {
+                eventPublisher.publishEvent(BookChangedEvent.added(added.get(change.bookId())).toRemote());
+            }
+        }
+        message.loanChanges().forEach(change -> eventPublisher.publishEvent(change.toRemote()));
+    }
+
+    private Map<Long, BookDto> addedBooks(List<BookChangedEvent> changes) {
+
+        final var ids = changes.stream()
+                .filter(change -> change.type() == BookChangedEvent.Type.ADDED)
+                .map(BookChangedEvent::bookId)
+                .toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return primaryReads.execute(status -> bookRepository.findAllById(ids).stream()
+                .map(bookMapper::toDto)
+                .collect(Collectors.toMap(BookDto::id, Function.identity())));
+    }
+
+    private void publish() {
+
+        while (running) {
+            try {
+                final var burst = new ArrayList<>();
+                burst.add(outbox.take());
+                Thread.sleep(properties.coalesceWindow());
+                outbox.drainTo(burst);
+                final var payload = overflowed.getAndSet(false)
+                        ? CacheChangeMessage.resync(origin)
+                        : CacheChangeMessage.encode(origin, burst);
+                if (!send(payload)) {
+                    sendResync();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean send(String payload) throws InterruptedException {
+
+        var delay = properties.reconnectDelay();
+        for (var attempt = 1; running; attempt++) {
+            try {
+                jdbcTemplate.query("select pg_notify(?, ?)", ResultSet::next, properties.channel(), payload);
+                return true;
+            } catch (DataAccessException e) {
+                if (attempt >= properties.sendAttempts()) {
+                    log.warn("Could not send cache invalidations after {} attempts, sending a resync instead: {}",
+                            attempt, e.getMessage());
+                    return false;
+                }
+                log.warn("Could not send cache invalidations, retrying in {}: {}", delay, e.getMessage());
+                Thread.sleep(delay);
+                delay = nextDelay(delay);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retries until the resync is sent: the other instances are still connected, so they would not resync on their
+     * own and the dropped changes would leave them stale. Changes committed before it is sent are covered by it, so
+     * the outbox is emptied before every attempt.
+     */
+    private void sendResync() throws InterruptedException {
+
+        var delay = properties.reconnectDelay();
+        while (running) {
+            outbox.clear();
+            overflowed.set(false);
+            try {
+                jdbcTemplate.query("select pg_notify(?, ?)", ResultSet::next, properties.channel(),
+                        CacheChangeMessage.resync(origin));
+                return;
+            } catch (DataAccessException e) {
+                log.warn("Could not send cache resync, retrying in {}: {}", delay, e.getMessage());
+                Thread.sleep(delay);
+                delay = nextDelay(delay);
+            }
+        }
+    }
+
+    private void listen() {
+
+        var delay = properties.reconnectDelay();
+        while (running) {
+            try (var connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.channel());
+                }
+                if (ready) {
+                    eventPublisher.publishEvent(new CatalogResyncEvent());
+                }
+                log.info("Listening for cache invalidations on channel {}", properties.channel());
+                delay = properties.reconnectDelay();
+
+                final var notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    final var received = notifications.getNotifications((int) POLL_TIMEOUT.toMillis());
+                    if (received == null) {
+                        continue;
+                    }
+                    for (final var notification : received) {
+                        try {
+                            apply(notification.getParameter());
+                        } catch (IllegalArgumentException e) {
+                            log.warn("Ignoring cache notification: {}", e.getMessage());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {}: {}", delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = nextDelay(delay);
+            }
+        }
+    }
+
+    private static Duration nextDelay(Duration delay) {
+
+        final var doubled = delay.multipliedBy(2);
+        return doubled.compareTo(MAX_RECONNECT_DELAY) > 0 ? MAX_RECONNECT_DELAY : doubled;
+    }
+}
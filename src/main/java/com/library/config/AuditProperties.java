@@ -0,0 +1,27 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param bufferCapacity events held in memory between commit and insert; a power of two
+ * @param batchSize      rows per batched insert
+ * @param flushInterval  longest time an event waits in the buffer while the buffer holds less than a batch
+ * @param retryDelay     pause after a failed insert before the writer tries the database again
+ * @param spillFile      where events go when the buffer is full or the database is unavailable; must survive
+ *                       restarts and belong to this instance alone, so it defaults to the data directory
+ */
+@ConfigurationProperties(prefix = "library.audit")
+public record AuditProperties(Integer bufferCapacity, Integer batchSize, Duration flushInterval, Duration retryDelay,
+                              Path spillFile) {
+
+    public AuditProperties {
+        bufferCapacity = bufferCapacity == null ? 16_384 : bufferCapacity;
+        batchSize = batchSize == null ? 500 : batchSize;
+        flushInterval = flushInterval == null ? Duration.ofMillis(200) : flushInterval;
+        retryDelay = retryDelay == null ? Duration.ofSeconds(5) : retryDelay;
+        spillFile = spillFile == null ? Path.of("data", "audit-spill.log") : spillFile;
+    }
+}
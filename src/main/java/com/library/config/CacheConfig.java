@@ -0,0 +1,48 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.library.constants.CacheNames;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Caffeine backed cache manager. Every cache is bounded and uses W-TinyLFU eviction, so one-off
+     * keys (e.g. pagination crawlers walking every page) do not push out frequently read entries.
+     * Statistics are recorded so the caches are bound to the actuator metrics; every cache in {@link CacheNames}
+     * is created up front, because caches created lazily on first use are not bound.
+     */
+    @Bean
+    public CacheManager cacheManager(LibraryCacheProperties properties) {
+
+        final var cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(caffeine(properties.defaults()));
+        properties.specs().forEach((name, spec) -> cacheManager.registerCustomCache(name, caffeine(spec).build()));
+        CacheNames.ALL.stream()
+                .filter(name -> !properties.specs().containsKey(name))
+                .forEach(name -> cacheManager.registerCustomCache(name, caffeine(properties.defaults()).build()));
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> caffeine(LibraryCacheProperties.CacheSpec spec) {
+
+        final var caffeine = Caffeine.newBuilder().recordStats();
+        if (spec.maximumSize() != null) {
+            caffeine.maximumSize(spec.maximumSize());
+        }
+        if (spec.expireAfterWrite() != null) {
+            caffeine.expireAfterWrite(spec.expireAfterWrite());
+        }
+        if (spec.expireAfterAccess() != null) {
+            caffeine.expireAfterAccess(spec.expireAfterAccess());
+        }
+        return caffeine;
+    }
+}
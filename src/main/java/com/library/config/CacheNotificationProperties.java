@@ -0,0 +1,34 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * @param enabled        broadcast committed book changes to the other instances with PostgreSQL LISTEN/NOTIFY
+ * @param channel        notification channel shared by all instances; a plain lower-case SQL identifier
+ * @param coalesceWindow how long changes are collected before they are sent together
+ * @param reconnectDelay first delay before the listener reconnects or the publisher resends; doubled on every failed
+ *                       attempt up to a minute
+ * @param outboxCapacity committed changes held while they wait to be sent; once exceeded, the other instances are
+ *                       asked to resync instead
+ * @param sendAttempts   attempts to send one notification before the changes it carries, and all waiting behind it,
+ *                       are replaced by a resync
+ */
+@ConfigurationProperties(prefix = "library.cache.notifications")
+public record CacheNotificationProperties(boolean enabled, String channel, Duration coalesceWindow,
+                                          Duration reconnectDelay, Integer outboxCapacity, Integer sendAttempts) {
+
+    public CacheNotificationProperties {
+        channel = channel == null ? "library_cache" : channel;
+        coalesceWindow = coalesceWindow == null ? Duration.ofMillis(5) : coalesceWindow;
+        reconnectDelay = reconnectDelay == null ? Duration.ofSeconds(1) : reconnectDelay;
+        outboxCapacity = outboxCapacity == null ? 10_000 : outboxCapacity;
+        sendAttempts = sendAttempts == null ? 5 : sendAttempts;
+        if (!channel.matches("[a-z_][a-z0-9_]{0,62}")) {
+            throw new IllegalArgumentException(format("Cache notification channel {0} is not a plain identifier", channel));
+        }
+    }
+}
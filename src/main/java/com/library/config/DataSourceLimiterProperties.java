@@ -0,0 +1,17 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param maxConcurrency connections that may be checked out at once; defaults to the pool's maximum size
+ * @param acquireTimeout how long a caller waits for a permit before the checkout fails
+ */
+@ConfigurationProperties(prefix = "library.datasource.limiter")
+public record DataSourceLimiterProperties(Integer maxConcurrency, Duration acquireTimeout) {
+
+    public DataSourceLimiterProperties {
+        acquireTimeout = acquireTimeout == null ? Duration.ofSeconds(30) : acquireTimeout;
+    }
+}
@@ -0,0 +1,12 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "library.import")
+public record ImportProperties(Integer batchSize, Integer maxReportedErrors) {
+
+    public ImportProperties {
+        batchSize = batchSize == null ? 1_000 : batchSize;
+        maxReportedErrors = maxReportedErrors == null ? 1_000 : maxReportedErrors;
+    }
+}
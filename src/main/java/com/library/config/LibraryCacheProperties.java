@@ -0,0 +1,18 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "library.cache")
+public record LibraryCacheProperties(boolean enabled, CacheSpec defaults, Map<String, CacheSpec> specs) {
+
+    public LibraryCacheProperties {
+        defaults = defaults == null ? new CacheSpec(1_000L, null, null) : defaults;
+        specs = specs == null ? Map.of() : specs;
+    }
+
+    public record CacheSpec(Long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "library.loans")
+public record LoanProperties(CheckoutMode checkoutMode) {
+
+    public LoanProperties {
+        checkoutMode = checkoutMode == null ? CheckoutMode.LOCKING : checkoutMode;
+    }
+
+    /**
+     * How {@code loanBook} claims a book. {@code LOCKING} reads the book with a {@code SELECT ... FOR UPDATE} and
+     * holds the row lock for the whole checkout; {@code CONDITIONAL} flips {@code is_loaned} with a single
+     * conditional update, so the row is locked only from that statement to the commit.
+     */
+    public enum CheckoutMode {
+        LOCKING, CONDITIONAL
+    }
+}
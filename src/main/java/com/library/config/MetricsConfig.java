@@ -0,0 +1,118 @@
+package com.library.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.library.audit.AuditTrail;
+import com.library.datasource.ConcurrencyLimitedDataSource;
+import com.library.datasource.ReadWriteRoutingDataSource;
+import com.library.logging.LogRateLimiter;
+import com.library.metrics.QueriesPerRequestFilter;
+import com.library.metrics.QueryCountingDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Application metrics on top of what Boot binds itself (HTTP server requests, Caffeine caches, Hikari pools and,
+ * with {@code HIBERNATE_STATISTICS=true}, Hibernate statistics): statements per request, log events dropped by sampling and rate limiting, the
+ * saturation of the virtual-thread database limiter and the progress of the audit writer.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Counts at the JDBC layer, so that {@code JdbcTemplate} batches and reports are counted along with Hibernate.
+     */
+    @Bean
+    static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                // The routing data source hands out connections of the primary bean and of replicas counted on their own.
+                if (!(bean instanceof DataSource dataSource) || bean instanceof QueryCountingDataSource
+                        || bean instanceof ReadWriteRoutingDataSource) {
+                    return bean;
+                }
+                return new QueryCountingDataSource(dataSource);
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueriesPerRequestFilter> queriesPerRequestFilter(MeterRegistry meterRegistry) {
+
+        final var registration = new FilterRegistrationBean<>(new QueriesPerRequestFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder logRateLimiterMetrics() {
+
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+                return;
+            }
+            loggerContext.getTurboFilterList().stream()
+                    .filter(LogRateLimiter.class::isInstance)
+                    .map(LogRateLimiter.class::cast)
+                    .forEach(limiter -> {
+                        FunctionCounter.builder("library.logging.dropped", limiter, LogRateLimiter::getSampledOut)
+                                .description("Log events dropped before formatting")
+                                .tag("reason", "sampled")
+                                .register(registry);
+                        FunctionCounter.builder("library.logging.dropped", limiter, LogRateLimiter::getRateLimited)
+                                .description("Log events dropped before formatting")
+                                .tag("reason", "rate_limited")
+                                .register(registry);
+                    });
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceLimiterMetrics(ObjectProvider<Map<String, DataSource>> dataSources) {
+
+        return registry -> dataSources.getIfAvailable(Map::of).forEach((name, dataSource) -> {
+            final var limiter = DataSourceUnwrapper.unwrap(dataSource, ConcurrencyLimitedDataSource.class);
+            if (limiter == null) {
+                return;
+            }
+            Gauge.builder("library.datasource.limiter.active", limiter, ConcurrencyLimitedDataSource::getActive)
+                    .tag("name", name).register(registry);
+            Gauge.builder("library.datasource.limiter.waiting", limiter, ConcurrencyLimitedDataSource::getWaiting)
+                    .tag("name", name).register(registry);
+            Gauge.builder("library.datasource.limiter.max", limiter, ConcurrencyLimitedDataSource::getMaxConcurrency)
+                    .tag("name", name).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder auditTrailMetrics(AuditTrail auditTrail) {
+
+        return registry -> {
+            Gauge.builder("library.audit.buffered", auditTrail, AuditTrail::getBuffered)
+                    .description("Audit events waiting for the writer")
+                    .register(registry);
+            FunctionCounter.builder("library.audit.events", auditTrail, AuditTrail::getWritten)
+                    .tag("outcome", "written").register(registry);
+            FunctionCounter.builder("library.audit.events", auditTrail, AuditTrail::getSpilled)
+                    .tag("outcome", "spilled").register(registry);
+            FunctionCounter.builder("library.audit.events", auditTrail, AuditTrail::getDropped)
+                    .tag("outcome", "dropped").register(registry);
+        };
+    }
+}
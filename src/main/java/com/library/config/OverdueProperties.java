@@ -0,0 +1,19 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param tick  resolution of overdue reports and interval of the tracker's lease renewals
+ * @param lease how long the tracking instance keeps the lease without renewing it; another instance takes over
+ *              after it runs out
+ */
+@ConfigurationProperties(prefix = "library.overdue")
+public record OverdueProperties(Duration tick, Duration lease) {
+
+    public OverdueProperties {
+        tick = tick == null ? Duration.ofMinutes(1) : tick;
+        lease = lease == null ? tick.multipliedBy(3) : lease;
+    }
+}
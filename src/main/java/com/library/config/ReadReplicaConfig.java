@@ -0,0 +1,94 @@
+package com.library.config;
+
+import com.library.datasource.ReadWriteRoutingDataSource;
+import com.library.datasource.ReplicaRoutingDataSource;
+import com.library.metrics.QueryCountingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+
+/**
+ * Replaces Boot's single data source with a {@link ReadWriteRoutingDataSource}: read-only transactions run on the
+ * replicas in {@code library.datasource.read-replicas.nodes}, everything else on the primary configured by
+ * {@code spring.datasource}. Replicas lag behind the primary, so only reads that can tolerate that are marked
+ * read-only.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+
+    /**
+     * The pool Boot would otherwise create, still bound to {@code spring.datasource.hikari}.
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                 DataSourceProperties dataSourceProperties,
+                                                 ReadReplicaProperties properties) {
+
+        final var replicas = new LinkedHashMap<String, DataSource>();
+        properties.nodes().forEach((name, node) -> {
+            final var replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(node.url())
+                    .username(node.username() != null ? node.username() : dataSourceProperties.determineUsername())
+                    .password(node.password() != null ? node.password() : dataSourceProperties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + name);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            if (properties.maximumPoolSize() != null) {
+                replica.setMaximumPoolSize(properties.maximumPoolSize());
+            }
+            replicas.put(name, new QueryCountingDataSource(replica));
+        });
+
+        final var replicaRouting = new ReplicaRoutingDataSource(replicas, primaryDataSource, properties.connectionTimeout());
+        replicaRouting.checkHealth();
+        log.info("Routing read-only transactions to {} of {} read replicas", replicaRouting.getReplicasUp(),
+                replicaRouting.getReplicas());
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaRouting);
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics() {
+
+        return registry -> routingDataSource.ifAvailable(dataSource ->
+                Gauge.builder("library.datasource.replicas.up", dataSource.getReplicas(), ReplicaRoutingDataSource::getReplicasUp)
+                        .description("Read replicas taking read-only transactions")
+                        .register(registry));
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.read-replicas.health-check-interval:PT10S}",
+            initialDelayString = "${library.datasource.read-replicas.health-check-interval:PT10S}")
+    public void checkReplicas() {
+
+        routingDataSource.ifAvailable(dataSource -> dataSource.getReplicas().checkHealth());
+    }
+}
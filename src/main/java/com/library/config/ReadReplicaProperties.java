@@ -0,0 +1,27 @@
+package com.library.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param enabled             route read-only transactions to the replicas
+ * @param nodes               replicas by name; username and password default to {@code spring.datasource}'s
+ * @param maximumPoolSize     connections per replica pool; Hikari's default when unset
+ * @param connectionTimeout   how long a read waits for a replica connection before it falls back to the primary
+ * @param healthCheckInterval delay between two health checks of the replicas
+ */
+@ConfigurationProperties(prefix = "library.datasource.read-replicas")
+public record ReadReplicaProperties(boolean enabled, Map<String, Node> nodes, Integer maximumPoolSize,
+                                    Duration connectionTimeout, Duration healthCheckInterval) {
+
+    public ReadReplicaProperties {
+        nodes = nodes == null ? Map.of() : nodes;
+        connectionTimeout = connectionTimeout == null ? Duration.ofSeconds(1) : connectionTimeout;
+        healthCheckInterval = healthCheckInterval == null ? Duration.ofSeconds(10) : healthCheckInterval;
+    }
+
+    public record Node(String url, String username, String password) {
+    }
+}
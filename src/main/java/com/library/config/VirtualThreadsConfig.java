@@ -0,0 +1,59 @@
+package com.library.config;
+
+import com.library.datasource.ConcurrencyLimitedDataSource;
+import com.library.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled} is set (see the {@code virtual-threads} profile). Boot then runs
+ * Tomcat requests, {@code @Async} work and scheduled tasks on virtual threads; this configuration bounds how many of
+ * them may use the database at once, since that is no longer limited by the size of a platform thread pool.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(ObjectProvider<DataSourceLimiterProperties> properties) {
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                // The routing data source only hands out connections of the primary bean, limited on its own.
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource
+                        || bean instanceof ReadWriteRoutingDataSource) {
+                    return bean;
+                }
+                final var limiter = properties.getObject();
+                final var maxConcurrency = limiter.maxConcurrency() != null ? limiter.maxConcurrency() : poolSize(dataSource);
+                log.info("Limiting data source {} to {} concurrent connections", beanName, maxConcurrency);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, limiter.acquireTimeout());
+            }
+        };
+    }
+
+    private static int poolSize(DataSource dataSource) {
+
+        // Hikari reports -1 until the pool starts, which then falls back to its default of 10.
+        final var hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        if (hikari != null && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
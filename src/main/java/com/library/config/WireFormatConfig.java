@@ -0,0 +1,41 @@
+package com.library.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings offered next to JSON: clients sending {@code Accept: application/cbor} or
+ * {@code Accept: application/x-jackson-smile} get the same documents in CBOR or Smile. Both mappers are built from
+ * Boot's {@link Jackson2ObjectMapperBuilder}, so they share the JSON mapper's modules and date handling.
+ * <p>
+ * Blackbird replaces Jackson's reflective property access with accessors generated through
+ * {@code LambdaMetafactory} the first time a type is serialized, which is where most per-record CPU goes.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -3,9 +3,14 @@ package com.library.constants;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class CacheNames {
 
     public static final String BOOKS = "books";
     public static final String ALL_BOOKS = "all_books";
+    public static final String BOOK_IDS_BY_ISBN = "book_ids_by_isbn";
+
+    public static final List<String> ALL = List.of(BOOKS, ALL_BOOKS, BOOK_IDS_BY_ISBN);
 }
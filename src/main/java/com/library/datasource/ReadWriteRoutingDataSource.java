@@ -0,0 +1,43 @@
+package com.library.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends the connections of read-only transactions to the {@link ReplicaRoutingDataSource replicas} and everything
+ * else to the primary. The physical connection is only fetched on the first statement, by which time the
+ * transaction manager has marked the connection read-only (or not), so the choice follows
+ * {@code @Transactional(readOnly = true)}. A read-only transaction nested in a read-write one joins it and stays on
+ * the primary.
+ * <p>
+ * Closing it closes the replica pools and the primary pool.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final ReplicaRoutingDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaRoutingDataSource replicas) {
+
+        super(primary);
+        setReadOnlyDataSource(replicas);
+        this.replicas = replicas;
+    }
+
+    public ReplicaRoutingDataSource getReplicas() {
+
+        return replicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        try {
+            replicas.close();
+        } finally {
+            if (getTargetDataSource() instanceof AutoCloseable primary) {
+                primary.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.library.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to read replicas in round-robin order, skipping the replicas that are down. A replica is
+ * taken down when its last health check failed or when it refused a connection, and brought back by the next
+ * successful {@link #checkHealth() health check}. When no replica can serve, the connection comes from the primary,
+ * so reads get slower rather than fail.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(Map<String, DataSource> replicas, DataSource primary, Duration validationTimeout) {
+
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+                .toList();
+        this.primary = primary;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Validates a connection of every replica and updates which ones take reads.
+     */
+    public void checkHealth() {
+
+        for (final var replica : replicas) {
+            try (var connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    if (!replica.up) {
+                        replica.up = true;
+                        log.info("Read replica {} is up", replica.name);
+                    }
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    public int getReplicas() {
+
+        return replicas.size();
+    }
+
+    public int getReplicasUp() {
+
+        return (int) replicas.stream().filter(replica -> replica.up).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        for (final var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+
+        for (var attempt = 0; attempt < replicas.size(); attempt++) {
+            final var replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (!replica.up) {
+                continue;
+            }
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    private static void markDown(Replica replica, SQLException cause) {
+
+        if (replica.up) {
+            replica.up = false;
+            log.warn("Read replica {} is down, reads go to the other replicas or the primary: {}", replica.name,
+                    cause == null ? "connection is not valid" : cause.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean up;
+
+        private Replica(String name, DataSource dataSource) {
+
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.library.event;
+
+import com.library.rest.dto.BookDto;
+
+/**
+ * Published by the services whenever a book is added, removed, loaned or returned. Listeners that keep derived
+ * state in memory (caches, indexes) consume it after the surrounding transaction commits.
+ *
+ * @param bookId id of the changed book
+ * @param book   the book as it was written, only set for {@link Type#ADDED}
+ * @param type   kind of change
+ * @param remote whether another instance committed the change; it was audited and broadcast there
+ */
+public record BookChangedEvent(Long bookId, BookDto book, Type type, boolean remote) {
+
+    public BookChangedEvent(Long bookId, BookDto book, Type type) {
+
+        this(bookId, book, type, false);
+    }
+
+    public static BookChangedEvent added(BookDto book) {
+
+        return new BookChangedEvent(book.id(), book, Type.ADDED);
+    }
+
+    public static BookChangedEvent removed(Long bookId) {
+
+        return new BookChangedEvent(bookId, null, Type.REMOVED);
+    }
+
+    public static BookChangedEvent loaned(Long bookId) {
+
+        return new BookChangedEvent(bookId, null, Type.LOANED);
+    }
+
+    public static BookChangedEvent returned(Long bookId) {
+
+        return new BookChangedEvent(bookId, null, Type.RETURNED);
+    }
+
+    public BookChangedEvent toRemote() {
+
+        return new BookChangedEvent(bookId, book, type, true);
+    }
+
+    public enum Type {
+        ADDED, REMOVED, LOANED, RETURNED
+    }
+}
@@ -0,0 +1,8 @@
+package com.library.event;
+
+/**
+ * Published when book changes may have been missed, e.g. after the connection that receives other instances'
+ * changes was lost. Listeners that keep derived state in memory drop or rebuild it from the database.
+ */
+public record CatalogResyncEvent() {
+}
@@ -0,0 +1,39 @@
+package com.library.event;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published by the loan service whenever a loan is opened or closed; consumed after the surrounding transaction
+ * commits.
+ *
+ * @param loanId  id of the loan
+ * @param dueDate due date of the loan, only set for {@link Type#OPENED}
+ * @param type    kind of change
+ * @param remote  whether another instance committed the change; it was audited and broadcast there
+ */
+public record LoanChangedEvent(Long loanId, ZonedDateTime dueDate, Type type, boolean remote) {
+
+    public LoanChangedEvent(Long loanId, ZonedDateTime dueDate, Type type) {
+
+        this(loanId, dueDate, type, false);
+    }
+
+    public static LoanChangedEvent opened(Long loanId, ZonedDateTime dueDate) {
+
+        return new LoanChangedEvent(loanId, dueDate, Type.OPENED);
+    }
+
+    public static LoanChangedEvent closed(Long loanId) {
+
+        return new LoanChangedEvent(loanId, null, Type.CLOSED);
+    }
+
+    public LoanChangedEvent toRemote() {
+
+        return new LoanChangedEvent(loanId, dueDate, type, true);
+    }
+
+    public enum Type {
+        OPENED, CLOSED
+    }
+}
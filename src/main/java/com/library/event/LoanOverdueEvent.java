@@ -0,0 +1,9 @@
+package com.library.event;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published once per open loan when its due date passes.
+ */
+public record LoanOverdueEvent(Long loanId, ZonedDateTime dueDate) {
+}
@@ -0,0 +1,25 @@
+package com.library.event;
+
+/**
+ * Published by the user service whenever a user is added or removed; consumed after the surrounding transaction
+ * commits.
+ *
+ * @param userId id of the changed user
+ * @param type   kind of change
+ */
+public record UserChangedEvent(Long userId, Type type) {
+
+    public static UserChangedEvent added(Long userId) {
+
+        return new UserChangedEvent(userId, Type.ADDED);
+    }
+
+    public static UserChangedEvent removed(Long userId) {
+
+        return new UserChangedEvent(userId, Type.REMOVED);
+    }
+
+    public enum Type {
+        ADDED, REMOVED
+    }
+}
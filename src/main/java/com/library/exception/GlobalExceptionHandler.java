@@ -1,17 +1,28 @@
 package com.library.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.util.HashMap;
 
+import static java.text.MessageFormat.format;
 
+/**
+ * Expected domain and client errors are logged at WARN with their message only; their stack traces point at the
+ * same few service lines every time and would dominate log volume under load. Only unexpected failures are logged
+ * at ERROR with a stack trace.
+ */
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -20,8 +31,6 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
 
-        log.error("Validation exception", ex);
-
         final var errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -29,14 +38,48 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
 
+        log.warn("Validation failed: {}", errors);
+
         final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), errors.toString());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiErrorResponse> handleConstraintViolation(ConstraintViolationException ex) {
+
+        final var errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        log.warn("Validation failed: {}", errors);
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), errors.toString());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ApiErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+
+        final var message = format("Invalid value {0} for parameter {1}", ex.getValue(), ex.getName());
+        log.warn("Invalid parameter: {}", message);
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), message);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ApiErrorResponse> handleMissingParameter(MissingServletRequestParameterException ex) {
+
+        log.warn("Missing parameter: {}", ex.getParameterName());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     @ExceptionHandler({UserNotFoundException.class})
     public ResponseEntity<ApiErrorResponse> handleUserNotFoundException(UserNotFoundException ex) {
 
-        log.error("User not found", ex);
+        log.warn("User not found: {}", ex.getMessage());
 
         final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
@@ -45,7 +88,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({BookNotFoundException.class})
     public ResponseEntity<ApiErrorResponse> handleBookNotFoundException(BookNotFoundException ex) {
 
-        log.error("Book not found", ex);
+        log.warn("Book not found: {}", ex.getMessage());
 
         final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
@@ -54,7 +97,16 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({BookAlreadyLoanedException.class})
     public ResponseEntity<ApiErrorResponse> handleBookAlreadyLoanedException(BookAlreadyLoanedException ex) {
 
-        log.error("Book already loaned", ex);
+        log.warn("Book already loaned: {}", ex.getMessage());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler({LoanAlreadyReturnedException.class})
+    public ResponseEntity<ApiErrorResponse> handleLoanAlreadyReturnedException(LoanAlreadyReturnedException ex) {
+
+        log.warn("Loan already returned: {}", ex.getMessage());
 
         final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
@@ -63,16 +115,43 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({LoanNotFoundException.class})
     public ResponseEntity<ApiErrorResponse> handleLoanNotFoundException(LoanNotFoundException ex) {
 
-        log.error("Loan not found", ex);
+        log.warn("Loan not found: {}", ex.getMessage());
 
         final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<ApiErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+
+        log.warn("Invalid cursor: {}", ex.getMessage());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ApiErrorResponse> handleNoResourceFound(NoResourceFoundException ex) {
+
+        log.warn("No resource found: {}", ex.getResourcePath());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ApiErrorResponse> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex) {
+
+        log.warn("Unsupported media type: {}", ex.getContentType());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(errorResponse);
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ApiErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
 
-        log.error("Data integrity violation", ex);
+        log.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
 
         final var errorResponse = new ApiErrorResponse(HttpStatus.CONFLICT.value(), "Data integrity violation");
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
@@ -89,4 +168,4 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+}
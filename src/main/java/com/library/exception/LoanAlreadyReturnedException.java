@@ -0,0 +1,7 @@
+package com.library.exception;
+
+public class LoanAlreadyReturnedException extends RuntimeException {
+    public LoanAlreadyReturnedException(String message) {
+        super(message);
+    }
+}
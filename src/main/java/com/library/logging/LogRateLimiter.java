@@ -0,0 +1,174 @@
+package com.library.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps log volume bounded regardless of the request rate. An event type is a logger plus a message template, so
+ * every call site is limited on its own and a flood from one of them cannot crowd out the others.
+ * <ul>
+ *     <li>Sampling: events below WARN from loggers listed in {@code sampling} ({@code prefix=ratio,...}) are kept
+ *     with the given probability.</li>
+ *     <li>Rate limiting: each event type may emit {@code eventsPerSecond} events on average with bursts up to
+ *     {@code burst}; the rest are dropped.</li>
+ * </ul>
+ * Decisions are only taken for events the logger would actually emit, and dropped events are counted so they can
+ * be exported as metrics.
+ */
+public class LogRateLimiter extends TurboFilter {
+
+    static final int MAX_EVENT_TYPES = 10_000;
+
+    private final Map<String, Map<String, TokenBucket>> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger eventTypes = new AtomicInteger();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    private int eventsPerSecond = 100;
+    private int burst = 200;
+    private String sampling = "";
+    private List<SamplingRule> samplingRules = List.of();
+    private TokenBucket overflow;
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setBurst(int burst) {
+
+        this.burst = burst;
+    }
+
+    public void setSampling(String sampling) {
+
+        this.sampling = sampling;
+    }
+
+    public long getSampledOut() {
+
+        return sampledOut.sum();
+    }
+
+    public long getRateLimited() {
+
+        return rateLimited.sum();
+    }
+
+    @Override
+    public void start() {
+
+        if (eventsPerSecond <= 0 || burst <= 0) {
+            addError("eventsPerSecond and burst must be positive");
+            return;
+        }
+        final var rules = new ArrayList<SamplingRule>();
+        if (sampling != null) {
+            for (final var rule : sampling.split(",")) {
+                if (rule.isBlank()) {
+                    continue;
+                }
+                final var parts = rule.split("=");
+                if (parts.length != 2) {
+                    addError("Invalid sampling rule " + rule + ", expected logger=ratio");
+                    continue;
+                }
+                rules.add(new SamplingRule(parts[0].trim(), Double.parseDouble(parts[1].trim())));
+            }
+        }
+        rules.sort(Comparator.comparingInt((SamplingRule rule) -> rule.prefix().length()).reversed());
+        samplingRules = List.copyOf(rules);
+        overflow = new TokenBucket(eventsPerSecond, burst);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+
+        if (!isStarted() || format == null || level == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (level.isGreaterOrEqual(Level.WARN) || !sampled(logger.getName())) {
+            if (bucket(logger.getName(), format).tryAcquire()) {
+                return FilterReply.NEUTRAL;
+            }
+            rateLimited.increment();
+            return FilterReply.DENY;
+        }
+        sampledOut.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * @return true if the event is dropped by sampling
+     */
+    private boolean sampled(String loggerName) {
+
+        for (final var rule : samplingRules) {
+            if (loggerName.startsWith(rule.prefix())) {
+                return rule.ratio() < 1d && ThreadLocalRandom.current().nextDouble() >= rule.ratio();
+            }
+        }
+        return false;
+    }
+
+    private TokenBucket bucket(String loggerName, String format) {
+
+        final var byFormat = buckets.computeIfAbsent(loggerName, name -> new ConcurrentHashMap<>());
+        final var bucket = byFormat.get(format);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Templates are code constants; a caller logging dynamic text shares one bucket instead of growing the map.
+        if (eventTypes.get() >= MAX_EVENT_TYPES) {
+            return overflow;
+        }
+        return byFormat.computeIfAbsent(format, key -> {
+            eventTypes.incrementAndGet();
+            return new TokenBucket(eventsPerSecond, burst);
+        });
+    }
+
+    private record SamplingRule(String prefix, double ratio) {
+    }
+
+    static final class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int perSecond, int capacity) {
+
+            this.tokensPerNano = perSecond / 1e9;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+
+            final var now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1d) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
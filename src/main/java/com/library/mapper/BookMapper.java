@@ -3,7 +3,16 @@ package com.library.mapper;
 import com.library.repository.entity.BookEntity;
 import com.library.rest.dto.BookDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface BookMapper extends BaseMapper<BookDto, BookEntity> {
+
+    /**
+     * The version is owned by the persistence layer; a version sent by a client must not make a new entity look
+     * like a detached one.
+     */
+    @Mapping(target = "version", ignore = true)
+    @Override
+    BookEntity toEntity(BookDto dto);
 }
@@ -1,9 +1,24 @@
 package com.library.mapper;
 
 import com.library.repository.entity.LoanEntity;
+import com.library.repository.projection.LoanRow;
 import com.library.rest.dto.LoanDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface LoanMapper extends BaseMapper<LoanDto, LoanEntity> {
+
+    @Mapping(target = "book.id", source = "bookId")
+    @Mapping(target = "book.title", source = "bookTitle")
+    @Mapping(target = "book.author", source = "bookAuthor")
+    @Mapping(target = "book.isbn", source = "bookIsbn")
+    @Mapping(target = "book.isLoaned", source = "bookIsLoaned")
+    @Mapping(target = "book.version", ignore = true)
+    @Mapping(target = "user.id", source = "userId")
+    @Mapping(target = "user.firstName", source = "userFirstName")
+    @Mapping(target = "user.lastName", source = "userLastName")
+    @Mapping(target = "user.email", source = "userEmail")
+    @Mapping(target = "user.version", ignore = true)
+    LoanDto rowToDto(LoanRow row);
 }
@@ -3,7 +3,16 @@ package com.library.mapper;
 import com.library.repository.entity.UserEntity;
 import com.library.rest.dto.UserDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper extends BaseMapper<UserDto, UserEntity> {
+
+    /**
+     * The version is owned by the persistence layer; a version sent by a client must not make a new entity look
+     * like a detached one.
+     */
+    @Mapping(target = "version", ignore = true)
+    @Override
+    UserEntity toEntity(UserDto dto);
 }
@@ -0,0 +1,40 @@
+package com.library.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the statements that take a book's row lock. They return once the lock is granted, so under contention
+ * their duration is dominated by the wait for concurrent checkouts and returns of the same book.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class LockWaitMetrics {
+
+    static final String METRIC = "library.book.lock.wait";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.library.repository.BookRepository.findByIdForUpdate(..))"
+            + " || execution(* com.library.repository.BookRepository.findAllByIdForUpdate(..))"
+            + " || execution(* com.library.repository.BookRepository.markLoaned(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        final var sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Time spent acquiring book row locks")
+                    .tag("method", joinPoint.getSignature().getName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
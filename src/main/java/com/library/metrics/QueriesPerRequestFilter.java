@@ -0,0 +1,59 @@
+package com.library.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many statements each request sent to the database, tagged like {@code http.server.requests}, so an
+ * endpoint that starts issuing N+1 queries shows up as a shifted distribution.
+ * <p>
+ * Only statements issued on the request thread are counted, see {@link QueryCounter}. Requests that go async, such
+ * as a {@code StreamingResponseBody} export, do their work on another thread and are not recorded at all rather
+ * than recorded with a partial count.
+ */
+@RequiredArgsConstructor
+public class QueriesPerRequestFilter extends OncePerRequestFilter {
+
+    static final String METRIC = "library.http.server.queries";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final var queries = QueryCounter.stop();
+            if (request.isAsyncStarted()) {
+                return;
+            }
+            final var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements issued per request")
+                    .baseUnit("queries")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(queries);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.metrics;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts the SQL statements executed on the current thread while a count is open, as reported by
+ * {@link QueryCountingDataSource}. Statements executed on other threads, such as {@code @Async} work or an async
+ * request's continuation, are not seen.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class QueryCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+
+        COUNT.set(new int[1]);
+    }
+
+    static void count() {
+
+        final var count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    static int stop() {
+
+        final var count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,87 @@
+package com.library.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts every statement execution on its connections for {@link QueryCounter}, whether it comes from Hibernate,
+ * {@code JdbcTemplate} or plain JDBC. A batch counts once, as it goes to the database in one round trip.
+ * <p>
+ * Closing it closes the wrapped data source, so that wrapping a pool does not keep it from shutting down.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+
+        return counting(super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection counting(Connection connection) {
+
+        return proxy(Connection.class, connection, (method, result) -> result instanceof Statement
+                ? proxy(method.getReturnType(), result, (statementMethod, statementResult) -> statementResult)
+                : result);
+    }
+
+    /**
+     * Proxies {@code target} as {@code type}, counting the executions of a statement before they run and passing
+     * every result through {@code results}.
+     */
+    private static <T> T proxy(Class<T> type, Object target, ResultMapper results) {
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> {
+                        }
+                    }
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        QueryCounter.count();
+                    }
+                    try {
+                        return results.map(method, method.invoke(target, args));
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }));
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper {
+
+        Object map(Method method, Object result);
+    }
+}
@@ -0,0 +1,17 @@
+package com.library.overdue;
+
+import com.library.event.LoanOverdueEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class OverdueNotifier {
+
+    @EventListener
+    public void onLoanOverdue(LoanOverdueEvent event) {
+
+        log.info("Loan with id {} is overdue since {}", event.loanId(), event.dueDate());
+    }
+}
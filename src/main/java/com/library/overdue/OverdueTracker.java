@@ -0,0 +1,250 @@
+package com.library.overdue;
+
+import com.library.config.OverdueProperties;
+import com.library.event.CatalogResyncEvent;
+import com.library.event.LoanChangedEvent;
+import com.library.event.LoanOverdueEvent;
+import com.library.repository.LoanRepository;
+import com.library.repository.OverdueWatermarkRepository;
+import com.library.repository.entity.OverdueWatermarkEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reports each open loan once when its due date passes.
+ * <p>
+ * Open loans sit in a {@link TimingWheel} keyed by due date, so a tick only touches the loans that fall due.
+ * The wheel is filled from the database and then follows committed {@link LoanChangedEvent}s. After every tick the
+ * reached tick boundary is stored as a watermark: a new load reads only the open loans due after it, reports the
+ * ones that fell due in between and schedules the rest, so nothing is rescanned or reported twice.
+ * <p>
+ * Only one instance tracks: every tick takes or renews a lease on the watermark row, the instance holding it loads
+ * the wheel and the others keep none. Loans opened and closed on the other instances reach the tracking one as
+ * remote events through the PostgreSQL change notifications, which a multi-instance deployment therefore needs;
+ * a missed notification triggers a reload. A tracker that loses its lease while a report is under way may report
+ * the loans of that tick once more from the instance taking over.
+ * <p>
+ * The lock only guards the wheel; reports are published and the watermark is written after it is released, so
+ * checkouts never wait for either. Loads and hand-overs are serialized on a lock of their own.
+ */
+@Slf4j
+@Component
+public class OverdueTracker {
+
+    private final LoanRepository loanRepository;
+    private final OverdueWatermarkRepository watermarkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final long tickMillis;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock loading = new ReentrantLock();
+
+    private TimingWheel<ZonedDateTime> wheel;
+    private Set<Long> closedWhileLoading;
+
+    public OverdueTracker(LoanRepository loanRepository, OverdueWatermarkRepository watermarkRepository,
+                          ApplicationEventPublisher eventPublisher, TransactionOperations transactionOperations,
+                          OverdueProperties overdueProperties) {
+
+        this.loanRepository = loanRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.tickMillis = overdueProperties.tick().toMillis();
+        this.lease = overdueProperties.lease();
+    }
+
+    @Scheduled(fixedDelayString = "${library.overdue.tick:PT1M}")
+    public void tick() {
+
+        final var now = Instant.now();
+        if (!holdLease(now)) {
+            if (isTracking()) {
+                stopTracking();
+                log.info("Overdue tracking lease lost to another instance");
+            }
+            return;
+        }
+        if (!isTracking()) {
+            load();
+        }
+        advance(now);
+    }
+
+    /**
+     * Fills a new wheel from the open loans due after the watermark and reports the ones already due.
+     */
+    public void load() {
+
+        loading.lock();
+        try {
+            final var overdue = new ArrayList<LoanOverdueEvent>();
+            lock.lock();
+            try {
+                wheel = new TimingWheel<>(Math.floorDiv(System.currentTimeMillis(), tickMillis));
+                closedWhileLoading = new HashSet<>();
+            } finally {
+                lock.unlock();
+            }
+
+            final var after = transactionOperations.execute(status -> watermarkRepository.findById(OverdueWatermarkEntity.ID)
+                    .map(OverdueWatermarkEntity::getProcessedUntil)
+                    .orElse(Instant.EPOCH.atZone(ZoneId.systemDefault())));
+            try {
+                transactionOperations.executeWithoutResult(status -> {
+                    try (var openLoans = loanRepository.streamOpenDueAfter(after)) {
+                        openLoans.forEach(loan -> {
+                            lock.lock();
+                            try {
+                                if (!closedWhileLoading.contains(loan.id())) {
+                                    schedule(loan.id(), loan.dueDate(), overdue);
+                                }
+                            } finally {
+                                lock.unlock();
+                            }
+                        });
+                    }
+                });
+            } finally {
+                lock.lock();
+                try {
+                    closedWhileLoading = null;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            publish(overdue);
+            log.info("Overdue tracker loaded with {} open loans due after {}", size(), after);
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    @EventListener(CatalogResyncEvent.class)
+    public void onResync() {
+
+        if (isTracking()) {
+            load();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoanChanged(LoanChangedEvent event) {
+
+        final var overdue = new ArrayList<LoanOverdueEvent>(0);
+        lock.lock();
+        try {
+            if (wheel == null) {
+                return;
+            }
+            switch (event.type()) {
+                case OPENED -> schedule(event.loanId(), event.dueDate(), overdue);
+                case CLOSED -> {
+                    wheel.cancel(event.loanId());
+                    if (closedWhileLoading != null) {
+                        closedWhileLoading.add(event.loanId());
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        publish(overdue);
+    }
+
+    void advance(Instant now) {
+
+        final var overdue = new ArrayList<LoanOverdueEvent>();
+        final ZonedDateTime boundary;
+        lock.lock();
+        try {
+            if (wheel == null || closedWhileLoading != null) {
+                return;
+            }
+            final var previous = wheel.currentTick();
+            wheel.advanceTo(Math.floorDiv(now.toEpochMilli(), tickMillis),
+                    (loanId, dueDate) -> overdue.add(new LoanOverdueEvent(loanId, dueDate)));
+            boundary = wheel.currentTick() == previous
+                    ? null
+                    : Instant.ofEpochMilli(wheel.currentTick() * tickMillis).atZone(ZoneId.systemDefault());
+        } finally {
+            lock.unlock();
+        }
+
+        publish(overdue);
+        if (boundary != null) {
+            transactionOperations.executeWithoutResult(status ->
+                    watermarkRepository.advanceWatermark(OverdueWatermarkEntity.ID, owner, boundary));
+        }
+    }
+
+    int size() {
+
+        lock.lock();
+        try {
+            return wheel == null ? 0 : wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isTracking() {
+
+        lock.lock();
+        try {
+            return wheel != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean holdLease(Instant now) {
+
+        final var zone = ZoneId.systemDefault();
+        return Boolean.TRUE.equals(transactionOperations.execute(status -> watermarkRepository.acquireLease(
+                OverdueWatermarkEntity.ID, owner, now.plus(lease).atZone(zone), now.atZone(zone)) == 1));
+    }
+
+    private void stopTracking() {
+
+        loading.lock();
+        lock.lock();
+        try {
+            wheel = null;
+        } finally {
+            lock.unlock();
+            loading.unlock();
+        }
+    }
+
+    private void schedule(Long loanId, ZonedDateTime dueDate, List<LoanOverdueEvent> overdue) {
+
+        final var deadlineTick = Math.ceilDiv(dueDate.toInstant().toEpochMilli(), tickMillis);
+        if (!wheel.schedule(loanId, deadlineTick, dueDate)) {
+            overdue.add(new LoanOverdueEvent(loanId, dueDate));
+        }
+    }
+
+    private void publish(List<LoanOverdueEvent> overdue) {
+
+        overdue.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,178 @@
+package com.library.overdue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Hierarchical timing wheel over integral ticks. Four levels of 64 slots cover 64<sup>4</sup> ticks ahead of the
+ * current tick (about 31 years at one-minute ticks); later deadlines wait in an overflow list. Adding and removing
+ * an entry is O(1); advancing by one tick expires one level-0 slot and, every 64 ticks, redistributes one slot of
+ * the level above, so the work per tick is proportional to the entries that actually move.
+ * <p>
+ * Not thread-safe; {@link OverdueTracker} serializes access.
+ *
+ * @param <T> payload handed back when an entry expires
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final Node<T>[][] wheels;
+    private final Node<T> overflow = Node.sentinel();
+    private final Map<Long, Node<T>> nodes = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long currentTick) {
+
+        this.currentTick = currentTick;
+        this.wheels = new Node[LEVELS][SLOTS];
+        for (final var wheel : wheels) {
+            for (var slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Node.sentinel();
+            }
+        }
+    }
+
+    long currentTick() {
+
+        return currentTick;
+    }
+
+    int size() {
+
+        return nodes.size();
+    }
+
+    /**
+     * Schedules {@code id} to expire at {@code deadlineTick}, replacing an earlier schedule for the same id.
+     *
+     * @return {@code false} if the deadline is not after the current tick; nothing is scheduled then and the
+     * caller handles the entry as expired
+     */
+    boolean schedule(long id, long deadlineTick, T payload) {
+
+        cancel(id);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        final var node = new Node<>(id, deadlineTick, payload);
+        nodes.put(id, node);
+        place(node);
+        return true;
+    }
+
+    boolean cancel(long id) {
+
+        final var node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick}, handing every entry whose deadline was reached to {@code expired}.
+     * Ticks that were missed are replayed in order; an empty wheel jumps straight to the target.
+     */
+    void advanceTo(long tick, BiConsumer<Long, T> expired) {
+
+        while (currentTick < tick) {
+            if (nodes.isEmpty()) {
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+            cascade();
+            final var slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+            while (slot.next != slot) {
+                final var node = slot.next;
+                node.unlink();
+                nodes.remove(node.id);
+                expired.accept(node.id, node.payload);
+            }
+        }
+    }
+
+    private void cascade() {
+
+        var level = 0;
+        while (level < LEVELS && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        if (level == LEVELS) {
+            redistribute(overflow);
+            level--;
+        }
+        for (; level > 0; level--) {
+            redistribute(wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+        }
+    }
+
+    private void redistribute(Node<T> slot) {
+
+        var node = slot.next;
+        slot.next = slot;
+        slot.previous = slot;
+        while (node != slot) {
+            final var next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<T> node) {
+
+        final var delta = Math.max(node.deadlineTick - currentTick, 0);
+        for (var level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                final var slot = (int) ((Math.max(node.deadlineTick, currentTick) >>> (SLOT_BITS * level)) & SLOT_MASK);
+                wheels[level][slot].append(node);
+                return;
+            }
+        }
+        overflow.append(node);
+    }
+
+    private static final class Node<T> {
+
+        private final long id;
+        private final long deadlineTick;
+        private final T payload;
+        private Node<T> previous = this;
+        private Node<T> next = this;
+
+        private Node(long id, long deadlineTick, T payload) {
+
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        private static <T> Node<T> sentinel() {
+
+            return new Node<>(-1, -1, null);
+        }
+
+        private void append(Node<T> node) {
+
+            node.previous = previous;
+            node.next = this;
+            previous.next = node;
+            previous = node;
+        }
+
+        private void unlink() {
+
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+        }
+    }
+}
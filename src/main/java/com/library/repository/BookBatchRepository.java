@@ -0,0 +1,15 @@
+package com.library.repository;
+
+import com.library.repository.entity.BookEntity;
+
+import java.util.List;
+
+public interface BookBatchRepository {
+
+    /**
+     * Inserts the books in a single JDBC batch. Rows whose ISBN already exists are skipped instead of failing the
+     * batch; the returned array holds the update count of each row, {@code 0} meaning the row was skipped. Drivers
+     * that do not report counts for batched rows get them resolved from the ISBNs already stored.
+     */
+    int[] insertIgnoringDuplicates(List<BookEntity> books);
+}
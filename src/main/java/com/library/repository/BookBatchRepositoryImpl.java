@@ -0,0 +1,53 @@
+package com.library.repository;
+
+import com.library.repository.entity.BookEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookBatchRepositoryImpl implements BookBatchRepository {
+
+    private static final String INSERT_BOOK = """
+            insert into books (title, author, isbn, is_loaned) values (?, ?, ?, ?)
+            on conflict do nothing""";
+
+    private static final String SELECT_EXISTING_ISBNS = "select isbn from books where isbn in (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Drivers that rewrite batches, such as the PostgreSQL driver with {@code reWriteBatchedInserts}, report
+     * {@link Statement#SUCCESS_NO_INFO} instead of a count. Those rows are resolved against the ISBNs that existed
+     * before the batch, and against the earlier rows of the batch, so callers always get {@code 0} or {@code 1}.
+     */
+    @Override
+    public int[] insertIgnoringDuplicates(List<BookEntity> books) {
+
+        if (books.isEmpty()) {
+            return new int[0];
+        }
+        final var isbns = books.stream().map(BookEntity::getIsbn).toList();
+        final var seen = new HashSet<>(jdbcTemplate.queryForList(
+                SELECT_EXISTING_ISBNS.formatted(String.join(", ", Collections.nCopies(isbns.size(), "?"))),
+                String.class, isbns.toArray()));
+
+        final var updateCounts = jdbcTemplate.batchUpdate(INSERT_BOOK, books, books.size(), (statement, book) -> {
+            statement.setString(1, book.getTitle());
+            statement.setString(2, book.getAuthor());
+            statement.setString(3, book.getIsbn());
+            statement.setBoolean(4, Boolean.TRUE.equals(book.getIsLoaned()));
+        })[0];
+        for (var i = 0; i < updateCounts.length; i++) {
+            final var first = seen.add(isbns.get(i));
+            if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                updateCounts[i] = first ? 1 : 0;
+            }
+        }
+        return updateCounts;
+    }
+}
@@ -1,16 +1,68 @@
 package com.library.repository;
 
 import com.library.repository.entity.BookEntity;
+import com.library.repository.projection.BookLoanState;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface BookRepository extends JpaRepository<BookEntity, Long> {
+public interface BookRepository extends JpaRepository<BookEntity, Long>, BookBatchRepository {
 
     @Query("select b from books b where b.id = :id")
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     BookEntity findByIdForUpdate(Long id);
+
+    /**
+     * Locks the books in ascending id order, so that concurrent batches over overlapping books cannot deadlock.
+     */
+    @Query("select b from books b where b.id in :ids order by b.id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<BookEntity> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Marks the book as loaned if it is still available. The version is bumped by hand, as bulk updates bypass
+     * the entity's optimistic locking.
+     *
+     * @return 1 if the book was claimed, 0 if it does not exist or is already loaned
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update books b set b.isLoaned = true, b.version = b.version + 1 where b.id = :id and b.isLoaned = false")
+    int markLoaned(Long id);
+
+    List<BookEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    Slice<BookEntity> findAllBy(Pageable pageable);
+
+    Optional<BookEntity> findByIsbn(String isbn);
+
+    List<BookEntity> findByIsbnIn(Collection<String> isbns);
+
+    @Query("select b from books b order by b.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<BookEntity> streamAll();
+
+    @Query("select new com.library.repository.projection.BookLoanState(b.id, b.isLoaned) from books b")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<BookLoanState> streamLoanStates();
 }
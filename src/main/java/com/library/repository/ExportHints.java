@@ -0,0 +1,16 @@
+package com.library.repository;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query hint values shared by the repository methods that stream whole tables for export.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ExportHints {
+
+    /**
+     * Rows fetched per round trip by the forward-only export cursors.
+     */
+    public static final String FETCH_SIZE = "1000";
+}
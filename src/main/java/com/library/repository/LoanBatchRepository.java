@@ -0,0 +1,13 @@
+package com.library.repository;
+
+import com.library.repository.entity.LoanEntity;
+
+import java.util.List;
+
+public interface LoanBatchRepository {
+
+    /**
+     * Inserts the loans in a single JDBC batch and sets the generated id on each of them.
+     */
+    void insertAll(List<LoanEntity> loans);
+}
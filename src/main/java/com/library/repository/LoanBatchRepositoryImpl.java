@@ -0,0 +1,66 @@
+package com.library.repository;
+
+import com.library.repository.entity.LoanEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LoanBatchRepositoryImpl implements LoanBatchRepository {
+
+    private static final String INSERT_LOAN = """
+            insert into loans (book_id, user_id, loan_date, due_date, return_date) values (?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<LoanEntity> loans) {
+
+        if (loans.isEmpty()) {
+            return;
+        }
+        final var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_LOAN, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+
+                        final var loan = loans.get(i);
+                        statement.setLong(1, loan.getBook().getId());
+                        statement.setLong(2, loan.getUser().getId());
+                        setTimestamp(statement, 3, loan.getLoanDate());
+                        setTimestamp(statement, 4, loan.getDueDate());
+                        setTimestamp(statement, 5, loan.getReturnDate());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+
+                        return loans.size();
+                    }
+                }, keyHolder);
+
+        final var keys = keyHolder.getKeyList();
+        for (var i = 0; i < loans.size(); i++) {
+            loans.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, ZonedDateTime value) throws SQLException {
+
+        if (value == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setTimestamp(index, Timestamp.from(value.toInstant()));
+        }
+    }
+}
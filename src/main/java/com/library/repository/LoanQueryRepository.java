@@ -0,0 +1,22 @@
+package com.library.repository;
+
+import com.library.repository.projection.LoanRow;
+import com.library.rest.dto.LoanFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Loan listings as {@link LoanRow}s, restricted by a {@link LoanFilter}. Each call runs one query that joins the
+ * book and the user, ordered by loan id; only {@link #findRows} adds a count query.
+ */
+public interface LoanQueryRepository {
+
+    Page<LoanRow> findRows(LoanFilter filter, Pageable pageable);
+
+    Slice<LoanRow> findRowSlice(LoanFilter filter, Pageable pageable);
+
+    List<LoanRow> findRowsAfter(LoanFilter filter, Long id, int limit);
+}
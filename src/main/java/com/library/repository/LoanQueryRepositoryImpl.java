@@ -0,0 +1,104 @@
+package com.library.repository;
+
+import com.library.repository.entity.BookEntity;
+import com.library.repository.entity.LoanEntity;
+import com.library.repository.entity.UserEntity;
+import com.library.repository.projection.LoanRow;
+import com.library.rest.dto.LoanFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LoanQueryRepositoryImpl implements LoanQueryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<LoanRow> findRows(LoanFilter filter, Pageable pageable) {
+
+        final var rows = select(filter, null, (int) pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(filter));
+    }
+
+    @Override
+    public Slice<LoanRow> findRowSlice(LoanFilter filter, Pageable pageable) {
+
+        final var rows = select(filter, null, (int) pageable.getOffset(), pageable.getPageSize() + 1);
+        final var hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<LoanRow> findRowsAfter(LoanFilter filter, Long id, int limit) {
+
+        return select(filter, id, 0, limit);
+    }
+
+    private List<LoanRow> select(LoanFilter filter, Long afterId, int offset, int limit) {
+
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(LoanRow.class);
+        final var loan = query.from(LoanEntity.class);
+        final var book = loan.<LoanEntity, BookEntity>join("book");
+        final var user = loan.<LoanEntity, UserEntity>join("user");
+
+        final var predicates = predicates(cb, loan, filter);
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(loan.get("id"), afterId));
+        }
+
+        query.select(cb.construct(LoanRow.class,
+                        loan.get("id"), book.get("id"), book.get("title"), book.get("author"), book.get("isbn"),
+                        book.get("isLoaned"), user.get("id"), user.get("firstName"), user.get("lastName"),
+                        user.get("email"), loan.get("loanDate"), loan.get("dueDate"), loan.get("returnDate")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(loan.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long count(LoanFilter filter) {
+
+        final var cb = entityManager.getCriteriaBuilder();
+        final var query = cb.createQuery(Long.class);
+        final var loan = query.from(LoanEntity.class);
+
+        query.select(cb.count(loan))
+                .where(predicates(cb, loan, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<LoanEntity> loan, LoanFilter filter) {
+
+        final var predicates = new ArrayList<Predicate>();
+        if (filter.userId() != null) {
+            predicates.add(cb.equal(loan.get("user").get("id"), filter.userId()));
+        }
+        if (filter.bookId() != null) {
+            predicates.add(cb.equal(loan.get("book").get("id"), filter.bookId()));
+        }
+        if (filter.active() != null) {
+            predicates.add(filter.active() ? cb.isNull(loan.get("returnDate")) : cb.isNotNull(loan.get("returnDate")));
+        }
+        if (filter.overdueAt() != null) {
+            predicates.add(cb.isNull(loan.get("returnDate")));
+            predicates.add(cb.lessThan(loan.<ZonedDateTime>get("dueDate"), filter.overdueAt()));
+        }
+        return predicates;
+    }
+}
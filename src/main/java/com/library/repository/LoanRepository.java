@@ -1,9 +1,55 @@
 package com.library.repository;
 
 import com.library.repository.entity.LoanEntity;
+import com.library.repository.projection.OpenLoan;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface LoanRepository extends JpaRepository<LoanEntity, Long> {
+public interface LoanRepository extends JpaRepository<LoanEntity, Long>, LoanBatchRepository, LoanQueryRepository {
+
+    @EntityGraph(attributePaths = {"book", "user"})
+    List<LoanEntity> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select l from loans l where l.id = :id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<LoanEntity> findByIdForUpdate(Long id);
+
+    /**
+     * Locks the loans in ascending id order, so that concurrent batches over overlapping loans cannot deadlock.
+     */
+    @Query("select l from loans l where l.id in :ids order by l.id")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<LoanEntity> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Open loans falling due after {@code after}, read through the partial index on open loans' due dates.
+     */
+    @Query("select new com.library.repository.projection.OpenLoan(l.id, l.dueDate) from loans l " +
+            "where l.returnDate is null and l.dueDate > :after")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OpenLoan> streamOpenDueAfter(ZonedDateTime after);
+
+    @Query("select l from loans l join fetch l.book join fetch l.user order by l.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LoanEntity> streamAll();
 }
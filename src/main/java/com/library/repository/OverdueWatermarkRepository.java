@@ -0,0 +1,29 @@
+package com.library.repository;
+
+import com.library.repository.entity.OverdueWatermarkEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+
+@Repository
+public interface OverdueWatermarkRepository extends JpaRepository<OverdueWatermarkEntity, Long> {
+
+    /**
+     * Takes or renews the lease for {@code owner} unless another instance holds it past {@code now}; returns 1 when
+     * {@code owner} holds the lease afterwards.
+     */
+    @Modifying
+    @Query("update overdue_watermark w set w.owner = :owner, w.leaseUntil = :leaseUntil " +
+            "where w.id = :id and (w.owner = :owner or w.owner is null or w.leaseUntil < :now)")
+    int acquireLease(Long id, String owner, ZonedDateTime leaseUntil, ZonedDateTime now);
+
+    /**
+     * Moves the watermark, provided {@code owner} still holds the lease.
+     */
+    @Modifying
+    @Query("update overdue_watermark w set w.processedUntil = :processedUntil where w.id = :id and w.owner = :owner")
+    int advanceWatermark(Long id, String owner, ZonedDateTime processedUntil);
+}
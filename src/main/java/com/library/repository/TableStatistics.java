@@ -0,0 +1,88 @@
+package com.library.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate row counts for the listing endpoints. On PostgreSQL the planner estimate ({@code pg_class.reltuples})
+ * is used, which costs a catalog lookup instead of a table scan, with the statistics collector's live tuple count
+ * for tables never analyzed; other databases fall back to {@code count(*)}.
+ * <p>
+ * Values are only computed by the scheduled {@link #refresh}, whose first run seeds them right after startup, so
+ * callers never wait for a count; until then {@link #estimatedRowCount} answers {@link #UNKNOWN}.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TableStatistics {
+
+    public static final long UNKNOWN = -1;
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Table, Long> estimates = new ConcurrentHashMap<>();
+    private volatile Boolean postgres;
+
+    public long estimatedRowCount(Table table) {
+
+        return estimates.getOrDefault(table, UNKNOWN);
+    }
+
+    @Scheduled(fixedDelayString = "${library.statistics.refresh-interval:PT1M}")
+    public void refresh() {
+
+        for (final var table : Table.values()) {
+            try {
+                estimates.put(table, estimate(table));
+            } catch (DataAccessException e) {
+                log.warn("Could not estimate the row count of {}: {}", table.tableName, e.getMessage());
+            }
+        }
+        log.debug("Row count estimates refreshed: {}", estimates);
+    }
+
+    private long estimate(Table table) {
+
+        if (isPostgres()) {
+            final var reltuples = jdbcTemplate.queryForObject(
+                    "select reltuples::bigint from pg_class where oid = to_regclass(?)", Long.class, table.tableName);
+            if (reltuples != null && reltuples >= 0) {
+                return reltuples;
+            }
+            final var liveTuples = jdbcTemplate.queryForObject(
+                    "select n_live_tup from pg_stat_user_tables where relid = to_regclass(?)", Long.class, table.tableName);
+            if (liveTuples != null) {
+                return liveTuples;
+            }
+        }
+        return jdbcTemplate.queryForObject("select count(*) from " + table.tableName, Long.class);
+    }
+
+    private boolean isPostgres() {
+
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    public enum Table {
+        BOOKS("books"), USERS("users"), LOANS("loans");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+}
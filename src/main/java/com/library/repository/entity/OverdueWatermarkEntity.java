@@ -0,0 +1,31 @@
+package com.library.repository.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Single-row table holding the instant up to which overdue loans have been reported, and the lease of the instance
+ * reporting them.
+ */
+@Entity(name = "overdue_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueWatermarkEntity {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private ZonedDateTime processedUntil;
+
+    private String owner;
+
+    private ZonedDateTime leaseUntil;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Entity(name = "users")
@@ -17,4 +18,7 @@ public class UserEntity {
     private String firstName;
     private String lastName;
     private String email;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,4 @@
+package com.library.repository.projection;
+
+public record BookLoanState(Long id, Boolean isLoaned) {
+}
@@ -0,0 +1,13 @@
+package com.library.repository.projection;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Flat projection of a loan joined with its book and user, holding exactly the columns of a
+ * {@link com.library.rest.dto.LoanDto}. Listings read it with one query instead of loading entity graphs.
+ */
+public record LoanRow(Long id,
+                      Long bookId, String bookTitle, String bookAuthor, String bookIsbn, Boolean bookIsLoaned,
+                      Long userId, String userFirstName, String userLastName, String userEmail,
+                      ZonedDateTime loanDate, ZonedDateTime dueDate, ZonedDateTime returnDate) {
+}
@@ -0,0 +1,6 @@
+package com.library.repository.projection;
+
+import java.time.ZonedDateTime;
+
+public record OpenLoan(Long id, ZonedDateTime dueDate) {
+}
@@ -1,28 +1,61 @@
 package com.library.rest;
 
+import com.library.rest.dto.BookAvailabilityDto;
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.BookImportResult;
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.ImportFormat;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import com.library.service.BookAvailabilityService;
+import com.library.service.BookImportService;
+import com.library.service.BookSearchService;
 import com.library.service.BookService;
+import com.library.service.ExportService;
 import jakarta.validation.Valid;
-import org.springframework.beans.factory.annotation.Qualifier;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
+@RequiredArgsConstructor
 @RequestMapping("/library/books")
 @Validated
 public class BookController {
 
     private final BookService bookService;
+    private final BookAvailabilityService bookAvailabilityService;
+    private final BookImportService bookImportService;
+    private final BookSearchService bookSearchService;
+    private final ExportService exportService;
+
+    @GetMapping("/{bookId}")
+    public ResponseEntity<BookDto> getBookById(@PathVariable("bookId") Long bookId) {
 
-    public BookController(@Qualifier("defaultBookService") BookService bookService) {
-        this.bookService = bookService;
+        return EntityTags.tagged(bookService.getBookById(bookId));
     }
 
-    @GetMapping("/{bookId}")
-    public BookDto getBookById(@PathVariable("bookId") Long bookId) {
+    @GetMapping("/{bookId}/availability")
+    public BookAvailabilityDto getAvailability(@PathVariable("bookId") Long bookId) {
 
-        return bookService.getBookById(bookId);
+        return bookAvailabilityService.getAvailability(bookId);
+    }
+
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<BookDto> getBookByIsbn(@PathVariable("isbn") String isbn) {
+
+        return EntityTags.tagged(bookService.getBookByIsbn(isbn));
     }
 
     @PostMapping
@@ -31,6 +64,14 @@ public class BookController {
         return bookService.addBook(book);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public BookImportResult importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) throws IOException {
+
+        final var charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        return bookImportService.importBooks(body, ImportFormat.of(contentType), charset);
+    }
+
     @DeleteMapping("/{bookId}")
     public void deleteBookById(@PathVariable("bookId") Long bookId) {
 
@@ -38,8 +79,38 @@ public class BookController {
     }
 
     @GetMapping
-    public PaginatedResult<BookDto> getAllBooks(@RequestParam(defaultValue = "1") Integer page, @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<PaginatedResult<BookDto>> getAllBooks(@RequestParam(defaultValue = "1") Integer page, @RequestParam(defaultValue = "10") Integer size,
+                                                                @RequestParam(defaultValue = "EXACT") TotalMode total) {
+
+        return EntityTags.tagged(bookService.getAllBooks(page, size, total));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorResult<BookDto>> getBooksAfter(@RequestParam String cursor,
+                                                               @RequestParam(defaultValue = "10") @Min(1) @Max(CursorResult.MAX_PAGE_SIZE) Integer size) {
+
+        return EntityTags.tagged(bookService.getBooksAfter(cursor, size));
+    }
+
+    @GetMapping("/available")
+    public CursorResult<BookDto> getAvailableBooks(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "10") @Min(1) @Max(CursorResult.MAX_PAGE_SIZE) Integer size) {
+
+        return bookAvailabilityService.getAvailableBooks(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public List<BookDto> searchBooks(@RequestParam("q") String query,
+                                     @RequestParam(defaultValue = "10") @Min(1) @Max(CursorResult.MAX_PAGE_SIZE) Integer limit) {
+
+        return bookSearchService.searchBooks(query, limit);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
 
-        return bookService.getAllBooks(page, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportBooks);
     }
 }
@@ -0,0 +1,73 @@
+package com.library.rest;
+
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.Versioned;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Entity tags derived from entity versions. A single resource is tagged with its id and version, a listing
+ * with a hash over the versions of its items and its paging fields, so the tag is computed without serializing
+ * the body. Answering through {@link ResponseEntity} lets Spring MVC turn a matching {@code If-None-Match} into a
+ * {@code 304} before the body is written.
+ * <p>
+ * The tags are weak: the JSON, CBOR and Smile encodings of one version share a tag, as do their gzipped forms, and
+ * Tomcat does not compress responses carrying a strong tag. {@code If-None-Match} compares weakly, so revalidation
+ * is unaffected, and responses vary by {@code Accept} so a cache only revalidates against the same encoding.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class EntityTags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    static <T extends Versioned> ResponseEntity<T> tagged(T resource) {
+
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(weak(resource.id() + "-" + resource.version()))
+                .body(resource);
+    }
+
+    static <T extends Versioned> ResponseEntity<PaginatedResult<T>> tagged(PaginatedResult<T> page) {
+
+        final var hash = mix(mix(mix(hash(page.results()), page.totalElements()), page.pageNumber()), page.pageSize());
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(weak("p-" + Long.toHexString(mix(hash, Boolean.TRUE.equals(page.hasNext()) ? 1 : 0))))
+                .body(page);
+    }
+
+    static <T extends Versioned> ResponseEntity<CursorResult<T>> tagged(CursorResult<T> window) {
+
+        final var hash = mix(hash(window.results()), window.pageSize());
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(weak("c-" + Long.toHexString(mix(hash, window.nextCursor() == null ? 0 : 1))))
+                .body(window);
+    }
+
+    private static String weak(String tag) {
+
+        return "W/\"" + tag + "\"";
+    }
+
+    private static long hash(List<? extends Versioned> resources) {
+
+        var hash = mix(FNV_OFFSET, resources.size());
+        for (final var resource : resources) {
+            hash = mix(mix(hash, resource.id()), resource.version());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, Number value) {
+
+        return (hash ^ (value == null ? -1 : value.longValue())) * FNV_PRIME;
+    }
+}
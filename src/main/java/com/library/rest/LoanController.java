@@ -1,13 +1,27 @@
 package com.library.rest;
 
+import com.library.rest.dto.BatchLoanRequest;
+import com.library.rest.dto.BatchRefundRequest;
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.LoanBatchItem;
 import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanFilter;
 import com.library.rest.dto.LoanRequest;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import com.library.service.ExportService;
 import com.library.service.LoanService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,12 +30,31 @@ import org.springframework.web.bind.annotation.*;
 public class LoanController {
 
     private final LoanService loanService;
+    private final ExportService exportService;
 
     @GetMapping
-    public PaginatedResult<LoanDto> getAllLoans(@RequestParam(defaultValue = "1") Integer page,
-                                                @RequestParam(defaultValue = "10") Integer size) {
+    public PaginatedResult<LoanDto> getAllLoans(LoanFilter filter,
+                                                @RequestParam(defaultValue = "1") Integer page,
+                                                @RequestParam(defaultValue = "10") Integer size,
+                                                @RequestParam(defaultValue = "EXACT") TotalMode total) {
+
+        return loanService.getAllLoans(filter, page, size, total);
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorResult<LoanDto> getLoansAfter(LoanFilter filter,
+                                               @RequestParam String cursor,
+                                               @RequestParam(defaultValue = "10") @Min(1) @Max(CursorResult.MAX_PAGE_SIZE) Integer size) {
+
+        return loanService.getLoansAfter(filter, cursor, size);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLoans() {
 
-        return loanService.getAllLoans(page, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportLoans);
     }
 
     @PostMapping
@@ -30,6 +63,18 @@ public class LoanController {
         return loanService.loanBook(loanRequest.bookId(), loanRequest.userId(), loanRequest.loanDays());
     }
 
+    @PostMapping("/batch")
+    public List<LoanBatchItem> addLoans(@Valid @RequestBody final BatchLoanRequest batchLoanRequest) {
+
+        return loanService.loanBooks(batchLoanRequest.bookIds(), batchLoanRequest.userId(), batchLoanRequest.loanDays());
+    }
+
+    @PostMapping("/batch/refund")
+    public List<LoanBatchItem> refundLoans(@Valid @RequestBody final BatchRefundRequest batchRefundRequest) {
+
+        return loanService.refundBooks(batchRefundRequest.loanIds());
+    }
+
     @PostMapping("/{loanId}/refund")
     public LoanDto refundLoan(@PathVariable Long loanId) {
 
@@ -1,24 +1,35 @@
 package com.library.rest;
 
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.rest.dto.UserDto;
+import com.library.service.ExportService;
 import com.library.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/library/users")
+@Validated
 public class UserController {
 
     private final UserService userService;
+    private final ExportService exportService;
 
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
 
-        return userService.getUserById(userId);
+        return EntityTags.tagged(userService.getUserById(userId));
     }
 
     @PostMapping
@@ -34,8 +45,24 @@ public class UserController {
     }
 
     @GetMapping
-    public PaginatedResult<UserDto> getAllUsers(@RequestParam Integer page, @RequestParam Integer size) {
+    public ResponseEntity<PaginatedResult<UserDto>> getAllUsers(@RequestParam Integer page, @RequestParam Integer size,
+                                                                @RequestParam(defaultValue = "EXACT") TotalMode total) {
 
-        return userService.getAllUsers(page, size);
+        return EntityTags.tagged(userService.getAllUsers(page, size, total));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorResult<UserDto>> getUsersAfter(@RequestParam String cursor,
+                                                               @RequestParam(defaultValue = "10") @Min(1) @Max(CursorResult.MAX_PAGE_SIZE) Integer size) {
+
+        return EntityTags.tagged(userService.getUsersAfter(cursor, size));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::exportUsers);
     }
 }
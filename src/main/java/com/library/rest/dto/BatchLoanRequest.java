@@ -0,0 +1,16 @@
+package com.library.rest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchLoanRequest(
+        @NotEmpty(message = "BookIds are mandatory")
+        List<@NotNull Long> bookIds,
+        @NotNull(message = "UserId is mandatory")
+        Long userId,
+        @NotNull(message = "LoanDays is mandatory")
+        Integer loanDays
+) {
+}
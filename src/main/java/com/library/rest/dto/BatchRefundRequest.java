@@ -0,0 +1,12 @@
+package com.library.rest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BatchRefundRequest(
+        @NotEmpty(message = "LoanIds are mandatory")
+        List<@NotNull Long> loanIds
+) {
+}
@@ -0,0 +1,4 @@
+package com.library.rest.dto;
+
+public record BookAvailabilityDto(Long bookId, Boolean available) {
+}
@@ -10,5 +10,6 @@ public record BookDto(
         String author,
         @NotBlank(message = "ISBN is mandatory")
         String isbn,
-        Boolean isLoaned) {
+        Boolean isLoaned,
+        Long version) implements Versioned {
 }
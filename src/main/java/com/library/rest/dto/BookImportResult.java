@@ -0,0 +1,13 @@
+package com.library.rest.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists the rejected rows up to the configured limit;
+ * {@code rejected} always holds the full count.
+ */
+public record BookImportResult(Long received, Long imported, Long rejected, List<RowError> errors) {
+
+    public record RowError(Long line, String isbn, String reason) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.library.rest.dto;
+
+import java.util.List;
+
+public record CursorResult<T>(List<T> results, String nextCursor, Integer pageSize) {
+
+    /**
+     * Largest page a cursor listing serves; the window fetched for it is one row more.
+     */
+    public static final int MAX_PAGE_SIZE = 1_000;
+}
@@ -0,0 +1,29 @@
+package com.library.rest.dto;
+
+import org.springframework.http.MediaType;
+
+import static java.text.MessageFormat.format;
+
+public enum ImportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    ImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ImportFormat of(MediaType contentType) {
+
+        for (final var importFormat : values()) {
+            if (importFormat.mediaType.isCompatibleWith(contentType)) {
+                return importFormat;
+            }
+        }
+        throw new IllegalArgumentException(format("Unsupported import format {0}", contentType));
+    }
+}
@@ -0,0 +1,21 @@
+package com.library.rest.dto;
+
+/**
+ * Outcome of one entry of a batch checkout or return.
+ *
+ * @param id    the requested book id (checkout) or loan id (return)
+ * @param loan  the resulting loan, {@code null} if the entry failed
+ * @param error why the entry failed, {@code null} on success
+ */
+public record LoanBatchItem(Long id, LoanDto loan, String error) {
+
+    public static LoanBatchItem success(Long id, LoanDto loan) {
+
+        return new LoanBatchItem(id, loan, null);
+    }
+
+    public static LoanBatchItem failure(Long id, String error) {
+
+        return new LoanBatchItem(id, null, error);
+    }
+}
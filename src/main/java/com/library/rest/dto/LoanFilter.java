@@ -0,0 +1,29 @@
+package com.library.rest.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Optional restrictions on loan listings; {@code null} components are not applied.
+ *
+ * @param userId    only loans of this user
+ * @param bookId    only loans of this book
+ * @param active    {@code true} for loans not yet returned, {@code false} for returned ones
+ * @param overdueAt only loans still open whose due date is before this instant
+ */
+public record LoanFilter(Long userId,
+                         Long bookId,
+                         Boolean active,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime overdueAt) {
+
+    public static LoanFilter none() {
+
+        return new LoanFilter(null, null, null, null);
+    }
+
+    public boolean isUnrestricted() {
+
+        return userId == null && bookId == null && active == null && overdueAt == null;
+    }
+}
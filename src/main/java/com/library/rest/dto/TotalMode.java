@@ -0,0 +1,23 @@
+package com.library.rest.dto;
+
+/**
+ * How {@link PaginatedResult#totalElements()} is computed for a listing.
+ */
+public enum TotalMode {
+
+    /**
+     * Exact {@code count(*)} run next to the page query.
+     */
+    EXACT,
+
+    /**
+     * Row count taken from planner statistics or a periodically refreshed count; may lag behind recent writes and
+     * is left empty until the first refresh after startup.
+     */
+    ESTIMATED,
+
+    /**
+     * No total; clients page using {@link PaginatedResult#hasNext()}.
+     */
+    NONE
+}
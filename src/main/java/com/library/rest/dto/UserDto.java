@@ -9,5 +9,6 @@ public record UserDto(Long id,
                       @NotBlank(message = "LastName is mandatory")
                       String lastName,
                       @Email(message = "Email should be valid")
-                      String email) {
+                      String email,
+                      Long version) implements Versioned {
 }
@@ -0,0 +1,11 @@
+package com.library.rest.dto;
+
+/**
+ * A resource carrying the version of the entity it was read from; the version changes on every update.
+ */
+public interface Versioned {
+
+    Long id();
+
+    Long version();
+}
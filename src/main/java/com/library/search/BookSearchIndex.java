@@ -0,0 +1,404 @@
+package com.library.search;
+
+import com.library.event.BookChangedEvent;
+import com.library.rest.dto.BookDto;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over book title, author and ISBN.
+ * <p>
+ * Title and author terms live in sorted maps so that every query token is matched as a prefix; an exact term
+ * match scores higher than a prefix match and title matches score higher than author matches. All query tokens
+ * must match (AND). Candidates come from the rarest token's postings, taken in impact order (its highest weighted
+ * terms first), and are checked against the other tokens; scanning stops as soon as no remaining posting can enter
+ * the top results, so a common token such as "the" costs about {@code limit} candidates rather than its whole
+ * posting list. At most {@link #MAX_CANDIDATES} postings are examined per search, beyond which a query of several
+ * common tokens returns the best matches found so far. ISBNs are matched on their normalized form (digits and
+ * {@code x} only) and rank above text matches.
+ * <p>
+ * Searches run without locking. Writes are serialized on the index and come from committed
+ * {@link BookChangedEvent}s plus a bulk {@link #load load} at startup and whenever changes may have been missed;
+ * changes that arrive while a load is running are remembered and win over the rows the load reads afterwards.
+ */
+@Component
+public class BookSearchIndex {
+
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final int MAX_CANDIDATES = 10_000;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern ISBN_NOISE = Pattern.compile("[^0-9x]");
+
+    private static final float TITLE_EXACT = 3f;
+    private static final float TITLE_PREFIX = 2f;
+    private static final float AUTHOR_EXACT = 2f;
+    private static final float AUTHOR_PREFIX = 1f;
+    private static final float ISBN = 10f;
+
+    private final Map<Long, BookDto> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Postings> titleTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Postings> authorTerms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Long> isbns = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock loading = new ReentrantLock();
+
+    private Map<Long, BookChangedEvent.Type> changedWhileLoading;
+
+    public List<BookDto> search(String query, int limit) {
+
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+
+        final var matches = tokenize(query).stream()
+                .map(this::expand)
+                .sorted(Comparator.comparingLong(TokenMatch::cost))
+                .toList();
+        final var top = new TopHits(limit);
+        matchIsbn(query, matches, top);
+        matchText(matches, top);
+
+        final var results = new ArrayList<BookDto>(limit);
+        for (final var hit : top.ranked()) {
+            final var book = documents.get(hit.bookId());
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    public BookDto get(Long bookId) {
+
+        return documents.get(bookId);
+    }
+
+    public int size() {
+
+        return documents.size();
+    }
+
+    public synchronized void apply(BookChangedEvent event) {
+
+        if (changedWhileLoading != null) {
+            changedWhileLoading.put(event.bookId(), event.type());
+        }
+        switch (event.type()) {
+            case ADDED -> add(event.book());
+            case REMOVED -> remove(event.bookId());
+            case LOANED -> documents.computeIfPresent(event.bookId(), (id, book) -> withLoaned(book, true));
+            case RETURNED -> documents.computeIfPresent(event.bookId(), (id, book) -> withLoaned(book, false));
+        }
+    }
+
+    /**
+     * Indexes every book of the catalog and drops indexed books the catalog no longer has. Events applied while the
+     * load runs take precedence over the loaded rows, since those rows may have been read before the change
+     * committed. Loads run one at a time.
+     */
+    public void load(Iterable<BookDto> books) {
+
+        loading.lock();
+        try {
+            synchronized (this) {
+                changedWhileLoading = new HashMap<>();
+            }
+            try {
+                final var loaded = new HashSet<Long>();
+                for (final var book : books) {
+                    loaded.add(book.id());
+                    synchronized (this) {
+                        final var change = changedWhileLoading.get(book.id());
+                        if (change == BookChangedEvent.Type.REMOVED || change == BookChangedEvent.Type.ADDED) {
+                            continue;
+                        }
+                        if (change == BookChangedEvent.Type.LOANED || change == BookChangedEvent.Type.RETURNED) {
+                            add(withLoaned(book, change == BookChangedEvent.Type.LOANED));
+                        } else {
+                            add(book);
+                        }
+                    }
+                }
+                synchronized (this) {
+                    for (final var bookId : List.copyOf(documents.keySet())) {
+                        if (!loaded.contains(bookId) && !changedWhileLoading.containsKey(bookId)) {
+                            remove(bookId);
+                        }
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    changedWhileLoading = null;
+                }
+            }
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    private void add(BookDto book) {
+
+        remove(book.id());
+        documents.put(book.id(), book);
+        tokenize(book.title()).forEach(term -> titleTerms.computeIfAbsent(term, t -> new Postings()).add(book.id()));
+        tokenize(book.author()).forEach(term -> authorTerms.computeIfAbsent(term, t -> new Postings()).add(book.id()));
+        final var isbn = normalizeIsbn(book.isbn());
+        if (!isbn.isEmpty()) {
+            isbns.put(isbn, book.id());
+        }
+    }
+
+    private void remove(Long bookId) {
+
+        final var book = documents.remove(bookId);
+        if (book == null) {
+            return;
+        }
+        tokenize(book.title()).forEach(term -> removePosting(titleTerms, term, bookId));
+        tokenize(book.author()).forEach(term -> removePosting(authorTerms, term, bookId));
+        isbns.remove(normalizeIsbn(book.isbn()), bookId);
+    }
+
+    private static void removePosting(Map<String, Postings> terms, String term, Long bookId) {
+
+        final var postings = terms.get(term);
+        if (postings != null) {
+            postings.remove(bookId);
+            if (postings.size() == 0) {
+                terms.remove(term, postings);
+            }
+        }
+    }
+
+    private void matchText(List<TokenMatch> matches, TopHits top) {
+
+        if (matches.isEmpty() || matches.getFirst().cost() == 0) {
+            return;
+        }
+        final var others = matches.subList(1, matches.size());
+        final var othersBest = (float) others.stream().mapToDouble(TokenMatch::maxWeight).sum();
+        for (final var term : matches.getFirst().byImpact()) {
+            final var bound = term.weight() + othersBest;
+            if (!top.canImprove(bound) || top.exhausted()) {
+                return;
+            }
+            term.postings().forEachWhile(id -> {
+                if (!top.canEnter(bound, id) || !top.examine()) {
+                    return false;
+                }
+                if (top.markSeen(id)) {
+                    final var score = score(id, term.weight(), others);
+                    if (score > 0f) {
+                        top.offer(id, score);
+                    }
+                }
+                return true;
+            });
+        }
+    }
+
+    private void matchIsbn(String query, List<TokenMatch> matches, TopHits top) {
+
+        final var isbn = normalizeIsbn(query);
+        if (isbn.length() < 4 || !Character.isDigit(isbn.charAt(0))) {
+            return;
+        }
+        prefixRange(isbns, isbn).values().stream()
+                .limit(MAX_PREFIX_EXPANSIONS)
+                .filter(top::markSeen)
+                .forEach(id -> top.offer(id, ISBN + (matches.isEmpty() ? 0f
+                        : score(id, matches.getFirst().weightOf(id), matches.subList(1, matches.size())))));
+    }
+
+    /**
+     * Score of a book that matched the first token with {@code weight}, or 0 if it misses another token.
+     */
+    private static float score(long bookId, float weight, List<TokenMatch> others) {
+
+        if (weight == 0f) {
+            return 0f;
+        }
+        var score = weight;
+        for (final var match : others) {
+            final var other = match.weightOf(bookId);
+            if (other == 0f) {
+                return 0f;
+            }
+            score += other;
+        }
+        return score;
+    }
+
+    private TokenMatch expand(String token) {
+
+        final var terms = new ArrayList<WeightedPostings>();
+        collect(titleTerms, token, TITLE_EXACT, TITLE_PREFIX, terms);
+        collect(authorTerms, token, AUTHOR_EXACT, AUTHOR_PREFIX, terms);
+        return new TokenMatch(terms, terms.stream().mapToLong(term -> term.postings().size()).sum());
+    }
+
+    private static void collect(ConcurrentSkipListMap<String, Postings> terms, String token, float exact,
+                                float prefix, List<WeightedPostings> into) {
+
+        prefixRange(terms, token).entrySet().stream()
+                .limit(MAX_PREFIX_EXPANSIONS)
+                .forEach(entry -> into.add(new WeightedPostings(entry.getValue(),
+                        entry.getKey().length() == token.length() ? exact : prefix)));
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(ConcurrentSkipListMap<String, V> map, String prefix) {
+
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    static Set<String> tokenize(String text) {
+
+        if (text == null) {
+            return Set.of();
+        }
+        final var folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        final var tokens = new HashSet<>(Arrays.asList(TOKEN_SEPARATOR.split(folded.toLowerCase(Locale.ROOT))));
+        tokens.remove("");
+        return tokens;
+    }
+
+    private static String normalizeIsbn(String isbn) {
+
+        return isbn == null ? "" : ISBN_NOISE.matcher(isbn.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * Loaning and returning are the only updates a stored book goes through, and each bumps its version once, so
+     * the version is advanced whenever the flag flips.
+     */
+    private static BookDto withLoaned(BookDto book, boolean loaned) {
+
+        if (Boolean.valueOf(loaned).equals(book.isLoaned())) {
+            return book;
+        }
+        return new BookDto(book.id(), book.title(), book.author(), book.isbn(), loaned, book.version() + 1);
+    }
+
+    private record WeightedPostings(Postings postings, float weight) {
+    }
+
+    private record TokenMatch(List<WeightedPostings> terms, long cost) {
+
+        List<WeightedPostings> byImpact() {
+
+            return terms.stream()
+                    .sorted(Comparator.comparingDouble(WeightedPostings::weight).reversed())
+                    .toList();
+        }
+
+        float maxWeight() {
+
+            var best = 0f;
+            for (final var term : terms) {
+                best = Math.max(best, term.weight());
+            }
+            return best;
+        }
+
+        float weightOf(long bookId) {
+
+            var best = 0f;
+            for (final var term : terms) {
+                if (term.weight() > best && term.postings().contains(bookId)) {
+                    best = term.weight();
+                }
+            }
+            return best;
+        }
+    }
+
+    private record Hit(long bookId, float score) {
+    }
+
+    /**
+     * The best {@code limit} hits seen so far, worst on top, plus the books already scored and the examination
+     * budget of the search.
+     */
+    private static final class TopHits {
+
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Comparator.comparingLong(Hit::bookId).reversed());
+
+        private final int limit;
+        private final PriorityQueue<Hit> hits = new PriorityQueue<>(WORST_FIRST);
+        private final Set<Long> seen = new HashSet<>();
+        private int budget = MAX_CANDIDATES;
+
+        private TopHits(int limit) {
+            this.limit = limit;
+        }
+
+        boolean markSeen(long bookId) {
+
+            return seen.add(bookId);
+        }
+
+        void offer(long bookId, float score) {
+
+            hits.offer(new Hit(bookId, score));
+            if (hits.size() > limit) {
+                hits.poll();
+            }
+        }
+
+        /**
+         * Whether a book scoring at most {@code bound} could still displace a hit; a tie does if its id is lower.
+         */
+        boolean canImprove(float bound) {
+
+            return hits.size() < limit || bound >= hits.peek().score();
+        }
+
+        /**
+         * Like {@link #canImprove} for a given book: on equal scores the lower id ranks first.
+         */
+        boolean canEnter(float bound, long bookId) {
+
+            if (hits.size() < limit) {
+                return true;
+            }
+            final var worst = hits.peek();
+            return bound > worst.score() || bound == worst.score() && bookId < worst.bookId();
+        }
+
+        boolean examine() {
+
+            return budget-- > 0;
+        }
+
+        boolean exhausted() {
+
+            return budget <= 0;
+        }
+
+        List<Hit> ranked() {
+
+            final var ranked = new ArrayList<>(hits);
+            ranked.sort(WORST_FIRST.reversed());
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.search;
+
+import com.library.event.BookChangedEvent;
+import com.library.event.CatalogResyncEvent;
+import com.library.mapper.BookMapper;
+import com.library.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the {@link BookSearchIndex} in step with the catalog: it is filled when the application is ready and then
+ * maintained from committed book changes, and only rebuilt after a {@link CatalogResyncEvent}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndexer {
+
+    private final BookSearchIndex bookSearchIndex;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+
+        final var start = System.nanoTime();
+        try (var books = bookRepository.streamAll()) {
+            bookSearchIndex.load(books.map(book -> {
+                entityManager.detach(book);
+                return bookMapper.toDto(book);
+            })::iterator);
+        }
+        log.info("Search index loaded with {} books in {} ms", bookSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads in a read-write transaction, which keeps the load on the primary: a lagging replica may not have the
+     * changes that were missed yet.
+     */
+    @EventListener
+    @Transactional
+    public void onResync(CatalogResyncEvent event) {
+
+        load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+
+        bookSearchIndex.apply(event);
+    }
+}
@@ -0,0 +1,60 @@
+package com.library.search;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Sorted set of book ids for one term. Ids are stored in a primitive array so that a posting list costs eight
+ * bytes per entry; new books get increasing ids, which keeps additions on the cheap append path.
+ */
+final class Postings {
+
+    private long[] ids = new long[2];
+    private int size;
+
+    synchronized void add(long id) {
+
+        var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+
+    synchronized void remove(long id) {
+
+        final var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    synchronized boolean contains(long id) {
+
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    synchronized int size() {
+
+        return size;
+    }
+
+    /**
+     * Visits the ids in ascending order until {@code consumer} returns {@code false}.
+     */
+    synchronized void forEachWhile(LongPredicate consumer) {
+
+        for (var i = 0; i < size; i++) {
+            if (!consumer.test(ids[i])) {
+                return;
+            }
+        }
+    }
+}
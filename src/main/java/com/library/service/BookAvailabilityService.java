@@ -0,0 +1,12 @@
+package com.library.service;
+
+import com.library.rest.dto.BookAvailabilityDto;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.CursorResult;
+
+public interface BookAvailabilityService {
+
+    BookAvailabilityDto getAvailability(Long bookId);
+
+    CursorResult<BookDto> getAvailableBooks(String cursor, Integer size);
+}
@@ -0,0 +1,13 @@
+package com.library.service;
+
+import com.library.rest.dto.BookImportResult;
+import com.library.rest.dto.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+public interface BookImportService {
+
+    BookImportResult importBooks(InputStream input, ImportFormat format, Charset charset) throws IOException;
+}
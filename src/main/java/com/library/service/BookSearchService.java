@@ -0,0 +1,10 @@
+package com.library.service;
+
+import com.library.rest.dto.BookDto;
+
+import java.util.List;
+
+public interface BookSearchService {
+
+    List<BookDto> searchBooks(String query, Integer limit);
+}
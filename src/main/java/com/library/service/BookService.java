@@ -1,15 +1,21 @@
 package com.library.service;
 
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 
 public interface BookService {
 
     BookDto getBookById(Long bookId);
 
+    BookDto getBookByIsbn(String isbn);
+
     BookDto addBook(BookDto book);
 
     void deleteBookById(Long bookId);
 
-    PaginatedResult<BookDto> getAllBooks(final Integer page, final Integer size);
+    PaginatedResult<BookDto> getAllBooks(final Integer page, final Integer size, final TotalMode totalMode);
+
+    CursorResult<BookDto> getBooksAfter(final String cursor, final Integer size);
 }
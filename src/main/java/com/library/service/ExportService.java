@@ -0,0 +1,13 @@
+package com.library.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportBooks(OutputStream output) throws IOException;
+
+    void exportUsers(OutputStream output) throws IOException;
+
+    void exportLoans(OutputStream output) throws IOException;
+}
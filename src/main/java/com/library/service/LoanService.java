@@ -1,7 +1,13 @@
 package com.library.service;
 
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.LoanBatchItem;
 import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanFilter;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+
+import java.util.List;
 
 public interface LoanService {
 
@@ -9,5 +15,11 @@ public interface LoanService {
 
     LoanDto refundBook(Long loanId);
 
-    PaginatedResult<LoanDto> getAllLoans(final Integer page, final Integer size);
+    List<LoanBatchItem> loanBooks(List<Long> bookIds, Long userId, Integer loanDays);
+
+    List<LoanBatchItem> refundBooks(List<Long> loanIds);
+
+    PaginatedResult<LoanDto> getAllLoans(final LoanFilter filter, final Integer page, final Integer size, final TotalMode totalMode);
+
+    CursorResult<LoanDto> getLoansAfter(final LoanFilter filter, final String cursor, final Integer size);
 }
@@ -1,6 +1,8 @@
 package com.library.service;
 
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.rest.dto.UserDto;
 
 public interface UserService {
@@ -11,5 +13,7 @@ public interface UserService {
 
     void deleteUserById(Long userId);
 
-    PaginatedResult<UserDto> getAllUsers(final Integer page, final Integer size);
+    PaginatedResult<UserDto> getAllUsers(final Integer page, final Integer size, final TotalMode totalMode);
+
+    CursorResult<UserDto> getUsersAfter(final String cursor, final Integer size);
 }
@@ -1,48 +1,150 @@
 package com.library.service.impl;
 
+import com.library.cache.CatalogGeneration;
+import com.library.event.BookChangedEvent;
+import com.library.exception.BookNotFoundException;
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.service.BookService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
 
 import static com.library.constants.CacheNames.ALL_BOOKS;
 import static com.library.constants.CacheNames.BOOKS;
+import static com.library.constants.CacheNames.BOOK_IDS_BY_ISBN;
 
+/**
+ * Caching decorator of {@link DefaultBookService}. Cache misses are loaded in a read-write transaction, which keeps
+ * them on the primary when read-only transactions go to replicas: an entry is evicted right after a write commits,
+ * and a lagging replica would put the old row back for the whole lifetime of the entry, ETag included.
+ */
+@Primary
 @Service
+@ConditionalOnProperty(prefix = "library.cache", name = "enabled", havingValue = "true")
 @RequiredArgsConstructor
 public class CachedBookService implements BookService {
 
     private final DefaultBookService delegate;
+    private final CacheManager cacheManager;
+    private final CatalogGeneration catalogGeneration;
+    private final TransactionOperations primaryReads;
 
-    @Cacheable(cacheNames = BOOKS)
+    @Cacheable(cacheNames = BOOKS, sync = true)
     @Override
     public BookDto getBookById(Long bookId) {
 
-        return delegate.getBookById(bookId);
+        return primaryReads.execute(status -> delegate.getBookById(bookId));
+    }
+
+    /**
+     * ISBNs are cached as a mapping to the book id and resolved through the {@code books} cache, so both lookups
+     * share one cached copy of the book. A mapping left behind by a deleted book falls back to the database.
+     */
+    @Override
+    public BookDto getBookByIsbn(String isbn) {
+
+        final var bookIds = cacheManager.getCache(BOOK_IDS_BY_ISBN);
+        final var books = cacheManager.getCache(BOOKS);
+
+        final var bookId = bookIds.get(isbn, Long.class);
+        if (bookId != null) {
+            final var cached = books.get(bookId, BookDto.class);
+            if (cached != null) {
+                return cached;
+            }
+            try {
+                final var book = primaryReads.execute(status -> delegate.getBookById(bookId));
+                books.put(bookId, book);
+                return book;
+            } catch (BookNotFoundException e) {
+                bookIds.evict(isbn);
+            }
+        }
+
+        final var book = primaryReads.execute(status -> delegate.getBookByIsbn(isbn));
+        bookIds.put(isbn, book.id());
+        books.put(book.id(), book);
+        return book;
     }
 
-    @CachePut(cacheNames = BOOKS, key = "#book.id")
+    @CachePut(cacheNames = BOOKS, key = "#result.id")
     @Override
     public BookDto addBook(BookDto book) {
 
         return delegate.addBook(book);
     }
 
-    @CacheEvict(cacheNames = BOOKS)
     @Override
     public void deleteBookById(Long bookId) {
 
         delegate.deleteBookById(bookId);
     }
 
-    @Cacheable(cacheNames = ALL_BOOKS)
+    /**
+     * Pages are cached together with the catalog generation they were read at. The generation is taken before
+     * the page is loaded, so a write committing concurrently with the load always makes the entry look stale.
+     * A stale page is kept when none of the changes it missed can alter it, i.e. only books outside the page
+     * were loaned or returned. Additions and removals shift page boundaries and the total, so they force a reload.
+     */
+    @Override
+    public PaginatedResult<BookDto> getAllBooks(Integer page, Integer size, TotalMode totalMode) {
+
+        final var cache = cacheManager.getCache(ALL_BOOKS);
+        final var key = new SimpleKey(page, size, totalMode);
+        final var generation = catalogGeneration.current();
+
+        final var cached = cache.get(key, CachedPage.class);
+        if (cached == null) {
+            return cache.get(key, () -> new CachedPage(loadPage(page, size, totalMode), generation)).page();
+        }
+        if (cached.generation() == generation) {
+            return cached.page();
+        }
+
+        final var refreshed = isUnaffected(cached)
+                ? new CachedPage(cached.page(), generation)
+                : new CachedPage(loadPage(page, size, totalMode), generation);
+        cache.put(key, refreshed);
+        return refreshed.page();
+    }
+
     @Override
-    public PaginatedResult<BookDto> getAllBooks(Integer page, Integer size) {
+    public CursorResult<BookDto> getBooksAfter(String cursor, Integer size) {
+
+        return delegate.getBooksAfter(cursor, size);
+    }
+
+    private PaginatedResult<BookDto> loadPage(Integer page, Integer size, TotalMode totalMode) {
+
+        return primaryReads.execute(status -> delegate.getAllBooks(page, size, totalMode));
+    }
+
+    private boolean isUnaffected(CachedPage cached) {
+
+        return catalogGeneration.changesSince(cached.generation())
+                .map(changes -> changes.stream().noneMatch(change -> affects(change, cached.page().results())))
+                .orElse(false);
+    }
+
+    private static boolean affects(BookChangedEvent change, List<BookDto> books) {
+
+        return switch (change.type()) {
+            case ADDED, REMOVED -> true;
+            case LOANED, RETURNED -> books.stream().anyMatch(book -> change.bookId().equals(book.id()));
+        };
+    }
 
-        return delegate.getAllBooks(page, size);
+    record CachedPage(PaginatedResult<BookDto> page, long generation) {
     }
 }
@@ -0,0 +1,62 @@
+package com.library.service.impl;
+
+import com.library.availability.BookAvailability;
+import com.library.exception.BookNotFoundException;
+import com.library.rest.dto.BookAvailabilityDto;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.CursorResult;
+import com.library.search.BookSearchIndex;
+import com.library.service.BookAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Answers availability from {@link BookAvailability} and takes the listed books from the search index's document
+ * store, so neither call reaches the database.
+ * <p>
+ * Both follow the changes committed on this instance. With more than one instance they only see the others'
+ * changes when {@code library.cache.notifications.enabled} is set; otherwise they lag behind them until the next
+ * reload.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DefaultBookAvailabilityService implements BookAvailabilityService {
+
+    private final BookAvailability bookAvailability;
+    private final BookSearchIndex bookSearchIndex;
+
+    @Override
+    public BookAvailabilityDto getAvailability(Long bookId) {
+
+        return switch (bookAvailability.of(bookId)) {
+            case AVAILABLE -> new BookAvailabilityDto(bookId, true);
+            case LOANED -> new BookAvailabilityDto(bookId, false);
+            case UNKNOWN -> throw new BookNotFoundException(format("Book with id {0} not found", bookId));
+        };
+    }
+
+    @Override
+    public CursorResult<BookDto> getAvailableBooks(String cursor, Integer size) {
+
+        final var ids = bookAvailability.availableAfter(KeysetCursor.decode(cursor), size + 1);
+        final var window = ids.stream()
+                .map(bookSearchIndex::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        log.debug("Available books returned: {}", Math.min(window.size(), size));
+        return KeysetCursor.toResult(window, size, BookDto::id, DefaultBookAvailabilityService::asAvailable);
+    }
+
+    private static BookDto asAvailable(BookDto book) {
+
+        return Boolean.FALSE.equals(book.isLoaned()) ? book
+                : new BookDto(book.id(), book.title(), book.author(), book.isbn(), false, book.version());
+    }
+}
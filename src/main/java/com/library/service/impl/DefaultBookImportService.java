@@ -0,0 +1,210 @@
+package com.library.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.library.config.ImportProperties;
+import com.library.event.BookChangedEvent;
+import com.library.mapper.BookMapper;
+import com.library.repository.BookRepository;
+import com.library.repository.entity.BookEntity;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.BookImportResult;
+import com.library.rest.dto.ImportFormat;
+import com.library.service.BookImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a catalog dump line by line. Lines are collected into chunks of {@code library.import.batch-size};
+ * each chunk is parsed and validated in parallel and written in one JDBC batch inside its own transaction, so
+ * memory use is bounded by the chunk size and a failing chunk does not roll back the rows imported before it.
+ * The CSV header is read with the same parser as the rows, and the text is decoded with the charset of the request.
+ * Quoted CSV values spanning several lines are not supported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DefaultBookImportService implements BookImportService {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportProperties importProperties;
+
+    @Override
+    public BookImportResult importBooks(InputStream input, ImportFormat format, Charset charset) throws IOException {
+
+        final var progress = new Progress(importProperties.maxReportedErrors());
+        try (var reader = new BufferedReader(new InputStreamReader(input, charset))) {
+            var lineNumber = 0L;
+            final ObjectReader rowReader;
+            if (format == ImportFormat.CSV) {
+                lineNumber++;
+                rowReader = csvReader(reader.readLine());
+            } else {
+                rowReader = objectMapper.readerFor(BookDto.class);
+            }
+
+            final var chunk = new ArrayList<Line>(importProperties.batchSize());
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == importProperties.batchSize()) {
+                    importChunk(chunk, rowReader, progress);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, rowReader, progress);
+        }
+
+        log.info("Book import finished: {} received, {} imported, {} rejected",
+                progress.received, progress.imported, progress.rejected);
+        return new BookImportResult(progress.received, progress.imported, progress.rejected, progress.errors);
+    }
+
+    private void importChunk(List<Line> lines, ObjectReader rowReader, Progress progress) {
+
+        if (lines.isEmpty()) {
+            return;
+        }
+        progress.received += lines.size();
+
+        final var rows = lines.parallelStream()
+                .map(line -> parse(line, rowReader))
+                .toList();
+        final var valid = new ArrayList<Row>(rows.size());
+        rows.forEach(row -> {
+            if (row.error() == null) {
+                valid.add(row);
+            } else {
+                progress.reject(row.line(), row.book() == null ? null : row.book().isbn(), row.error());
+            }
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        final var books = valid.stream()
+                .map(row -> bookMapper.toEntity(row.book()).toBuilder().id(null).isLoaned(false).build())
+                .toList();
+        try {
+            transactionOperations.executeWithoutResult(status -> insert(valid, books, progress));
+        } catch (DataAccessException e) {
+            log.warn("Book import batch starting at line {} failed: {}", valid.getFirst().line(), e.getMostSpecificCause().getMessage());
+            valid.forEach(row -> progress.reject(row.line(), row.book().isbn(), "Batch failed: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    private void insert(List<Row> rows, List<BookEntity> books, Progress progress) {
+
+        final var updateCounts = bookRepository.insertIgnoringDuplicates(books);
+        final var inserted = new ArrayList<String>(rows.size());
+        final var conflicts = new ArrayList<Row>();
+        for (var i = 0; i < rows.size(); i++) {
+            if (updateCounts[i] == 0) {
+                conflicts.add(rows.get(i));
+            } else {
+                inserted.add(rows.get(i).book().isbn());
+            }
+        }
+
+        bookRepository.findByIsbnIn(inserted)
+                .forEach(book -> eventPublisher.publishEvent(BookChangedEvent.added(bookMapper.toDto(book))));
+        progress.imported += inserted.size();
+        conflicts.forEach(row -> progress.reject(row.line(), row.book().isbn(), "ISBN already exists"));
+    }
+
+    private Row parse(Line line, ObjectReader rowReader) {
+
+        final BookDto book;
+        try {
+            book = rowReader.readValue(line.text());
+        } catch (JsonProcessingException e) {
+            return new Row(line.number(), null, e.getOriginalMessage());
+        } catch (IOException e) {
+            return new Row(line.number(), null, e.getMessage());
+        }
+
+        final var violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            final var error = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return new Row(line.number(), book, error);
+        }
+        return new Row(line.number(), book, null);
+    }
+
+    private static ObjectReader csvReader(String header) throws IOException {
+
+        if (header == null) {
+            throw new IOException("CSV import is missing the header line");
+        }
+        final String[] columns = CSV_MAPPER.readerForArrayOf(String.class)
+                .readValue(header);
+        final var schema = CsvSchema.builder();
+        Arrays.stream(columns)
+                .map(String::trim)
+                .forEach(schema::addColumn);
+        return CSV_MAPPER.readerFor(BookDto.class)
+                .with(schema.build())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Row(long line, BookDto book, String error) {
+    }
+
+    private static final class Progress {
+
+        private final int maxReportedErrors;
+        private final List<BookImportResult.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void reject(long line, String isbn, String reason) {
+
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BookImportResult.RowError(line, isbn, reason));
+            }
+        }
+    }
+}
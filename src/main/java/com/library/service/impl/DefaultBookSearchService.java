@@ -0,0 +1,27 @@
+package com.library.service.impl;
+
+import com.library.rest.dto.BookDto;
+import com.library.search.BookSearchIndex;
+import com.library.service.BookSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DefaultBookSearchService implements BookSearchService {
+
+    private final BookSearchIndex bookSearchIndex;
+
+    @Override
+    public List<BookDto> searchBooks(String query, Integer limit) {
+
+        final var results = bookSearchIndex.search(query, limit);
+
+        log.debug("Search for '{}' returned {} books", query, results.size());
+        return results;
+    }
+}
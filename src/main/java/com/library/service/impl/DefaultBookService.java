@@ -1,15 +1,23 @@
 package com.library.service.impl;
 
+import com.library.event.BookChangedEvent;
 import com.library.exception.BookNotFoundException;
 import com.library.mapper.BookMapper;
 import com.library.repository.BookRepository;
+import com.library.repository.TableStatistics;
+import com.library.repository.entity.BookEntity;
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.service.BookService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import static java.text.MessageFormat.format;
 
@@ -20,8 +28,11 @@ public class DefaultBookService implements BookService {
 
     private final BookMapper bookMapper;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableStatistics tableStatistics;
 
     @Override
+    @Transactional(readOnly = true)
     public BookDto getBookById(Long bookId) {
 
         return bookRepository.findById(bookId)
@@ -29,31 +40,61 @@ public class DefaultBookService implements BookService {
                 .orElseThrow(() -> new BookNotFoundException(format("Book with id {0} not found", bookId)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookDto getBookByIsbn(String isbn) {
+
+        return bookRepository.findByIsbn(isbn)
+                .map(bookMapper::toDto)
+                .orElseThrow(() -> new BookNotFoundException(format("Book with ISBN {0} not found", isbn)));
+    }
+
     @Override
     public BookDto addBook(BookDto book) {
 
         final var newBook = bookRepository.save(bookMapper.toEntity(book));
         log.info("New book added: {}", newBook);
-        return bookMapper.toDto(newBook);
+        final var bookDto = bookMapper.toDto(newBook);
+        eventPublisher.publishEvent(BookChangedEvent.added(bookDto));
+        return bookDto;
     }
 
     @Override
+    @Transactional
     public void deleteBookById(Long bookId) {
 
-        bookRepository.deleteById(bookId);
-        log.info("Book with id {} deleted", bookId);
+        bookRepository.findById(bookId).ifPresent(book -> {
+            bookRepository.delete(book);
+            eventPublisher.publishEvent(BookChangedEvent.removed(bookId));
+            log.info("Book with id {} deleted", bookId);
+        });
     }
 
     @Override
-    public PaginatedResult<BookDto> getAllBooks(Integer page, Integer size) {
+    @Transactional(readOnly = true)
+    public PaginatedResult<BookDto> getAllBooks(Integer page, Integer size, TotalMode totalMode) {
 
-        final var resultPage = bookRepository.findAll(Pageable.ofSize(size).withPage(page));
-        final var items = resultPage
-                .stream()
-                .map(bookMapper::toDto)
-                .toList();
+        final var pageable = Pageable.ofSize(size).withPage(page);
+        final var resultPage = totalMode == TotalMode.EXACT
+                ? bookRepository.findAll(pageable)
+                : bookRepository.findAllBy(pageable);
+        final var result = PaginatedResults.of(resultPage, totalMode,
+                () -> tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS), bookMapper::toDto);
+
+        log.atDebug()
+                .setMessage("Books page returned")
+                .addKeyValue("page", page)
+                .addKeyValue("size", result.results().size())
+                .addKeyValue("total", result.totalElements())
+                .log();
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResult<BookDto> getBooksAfter(String cursor, Integer size) {
 
-        log.info("All books returned: {}", items);
-        return new PaginatedResult<>(items, resultPage.getTotalElements(), resultPage.getNumber(), resultPage.getSize());
+        final var window = bookRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(size + 1));
+        return KeysetCursor.toResult(window, size, BookEntity::getId, bookMapper::toDto);
     }
 }
@@ -0,0 +1,92 @@
+package com.library.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.mapper.BookMapper;
+import com.library.mapper.LoanMapper;
+import com.library.mapper.UserMapper;
+import com.library.repository.BookRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserRepository;
+import com.library.service.ExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as JSON lines. Rows are read through the repositories' forward-only cursors, written as
+ * they arrive and detached right after, so the persistence context never holds more than the current row.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class DefaultExportService implements ExportService {
+
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private final BookMapper bookMapper;
+    private final UserMapper userMapper;
+    private final LoanMapper loanMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream output) throws IOException {
+
+        try (var books = bookRepository.streamAll()) {
+            final var exported = write(books, bookMapper::toDto, entityManager::detach, output);
+            log.info("Exported {} books", exported);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream output) throws IOException {
+
+        try (var users = userRepository.streamAll()) {
+            final var exported = write(users, userMapper::toDto, entityManager::detach, output);
+            log.info("Exported {} users", exported);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportLoans(OutputStream output) throws IOException {
+
+        try (var loans = loanRepository.streamAll()) {
+            final var exported = write(loans, loanMapper::toDto, loan -> {
+                entityManager.detach(loan);
+                entityManager.detach(loan.getBook());
+                entityManager.detach(loan.getUser());
+            }, output);
+            log.info("Exported {} loans", exported);
+        }
+    }
+
+    private <E, D> long write(Stream<E> rows, Function<E, D> mapper, Consumer<E> release,
+                              OutputStream output) throws IOException {
+
+        var count = 0L;
+        try (var writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(StreamUtils.nonClosing(output))) {
+            for (final var iterator = rows.iterator(); iterator.hasNext(); ) {
+                final var row = iterator.next();
+                writer.write(mapper.apply(row));
+                release.accept(row);
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -1,24 +1,44 @@
 package com.library.service.impl;
 
+import com.library.config.LoanProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
 import com.library.exception.BookAlreadyLoanedException;
 import com.library.exception.BookNotFoundException;
+import com.library.exception.LoanAlreadyReturnedException;
 import com.library.exception.LoanNotFoundException;
 import com.library.exception.UserNotFoundException;
 import com.library.mapper.LoanMapper;
 import com.library.repository.BookRepository;
 import com.library.repository.LoanRepository;
+import com.library.repository.TableStatistics;
 import com.library.repository.UserRepository;
+import com.library.repository.entity.BookEntity;
 import com.library.repository.entity.LoanEntity;
+import com.library.repository.entity.UserEntity;
+import com.library.repository.projection.LoanRow;
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.LoanBatchItem;
 import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanFilter;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.service.LoanService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.text.MessageFormat.format;
 
@@ -31,11 +51,27 @@ public class DefaultLoanService implements LoanService {
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final LoanMapper loanMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TableStatistics tableStatistics;
+    private final LoanProperties loanProperties;
 
     @Override
     @Transactional
     public LoanDto loanBook(Long bookId, Long userId, Integer loanDays) {
 
+        final var loan = switch (loanProperties.checkoutMode()) {
+            case LOCKING -> checkoutLocking(bookId, userId, loanDays);
+            case CONDITIONAL -> checkoutConditional(bookId, userId, loanDays);
+        };
+        eventPublisher.publishEvent(BookChangedEvent.loaned(bookId));
+        eventPublisher.publishEvent(LoanChangedEvent.opened(loan.getId(), loan.getDueDate()));
+
+        log.info("Book with id {} has been loaned", bookId);
+        return loanMapper.toDto(loan);
+    }
+
+    private LoanEntity checkoutLocking(Long bookId, Long userId, Integer loanDays) {
+
         final var book = bookRepository.findByIdForUpdate(bookId);
         if (book == null) {
             throw new BookNotFoundException(format("Book with id {0} not found", bookId));
@@ -47,27 +83,62 @@ public class DefaultLoanService implements LoanService {
         final var user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(format("User with id {0} not found", userId)));
 
-        final var loan = LoanEntity.builder()
-                .book(book)
-                .user(user)
-                .loanDate(ZonedDateTime.now())
-                .dueDate(ZonedDateTime.now().plusDays(loanDays))
-                .build();
+        final var loan = newLoan(book, user, loanDays);
         loanRepository.save(loan);
 
         book.setIsLoaned(true);
         bookRepository.save(book);
+        return loan;
+    }
 
-        log.info("Book with id {} has been loaned", bookId);
-        return loanMapper.toDto(loan);
+    /**
+     * Reads the book and the user without locks, then claims the book with one conditional update and inserts the
+     * loan right after it. The update clears the persistence context, so the book read earlier is detached and
+     * marking it loaned in memory does not issue a second update. The update also bumps the version, so the detached
+     * copy follows it and the returned loan carries the book's current version.
+     */
+    private LoanEntity checkoutConditional(Long bookId, Long userId, Integer loanDays) {
+
+        final var book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException(format("Book with id {0} not found", bookId)));
+        final var user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(format("User with id {0} not found", userId)));
+
+        if (bookRepository.markLoaned(bookId) == 0) {
+            throw new BookAlreadyLoanedException(format("Book with id {0} is already loaned", bookId));
+        }
+        book.setIsLoaned(true);
+        book.setVersion(book.getVersion() + 1);
+
+        final var loan = newLoan(book, user, loanDays);
+        loanRepository.save(loan);
+        return loan;
+    }
+
+    private static LoanEntity newLoan(BookEntity book, UserEntity user, Integer loanDays) {
+
+        return LoanEntity.builder()
+                .book(book)
+                .user(user)
+                .loanDate(ZonedDateTime.now())
+                .dueDate(ZonedDateTime.now().plusDays(loanDays))
+                .build();
     }
 
+    /**
+     * Locks the loan before its book, in the same order as {@link #refundBooks}, and only then checks that it is
+     * still open: two refunds of one loan cannot both pass, and a late refund cannot clear the flag of the book's
+     * next loan.
+     */
     @Override
     @Transactional
     public LoanDto refundBook(Long loanId) {
 
-        final var loan = loanRepository.findById(loanId)
+        final var loan = loanRepository.findByIdForUpdate(loanId)
                 .orElseThrow(() -> new LoanNotFoundException(format("Loan with id {0} not found", loanId)));
+        if (loan.getReturnDate() != null) {
+            throw new LoanAlreadyReturnedException(format("Loan with id {0} is already returned", loanId));
+        }
         final var book = bookRepository.findByIdForUpdate(loan.getBook().getId());
 
         loan.setReturnDate(ZonedDateTime.now());
@@ -75,21 +146,133 @@ public class DefaultLoanService implements LoanService {
 
         book.setIsLoaned(false);
         bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.returned(book.getId()));
+        eventPublisher.publishEvent(LoanChangedEvent.closed(loanId));
 
         log.info("Book with id {} has been refunded", book.getId());
         return loanMapper.toDto(loan);
     }
 
+    /**
+     * Checks out several books for one user. The books are locked in ascending id order with a single query and
+     * the loans are written in one JDBC batch; books that are missing or already loaned are reported per item
+     * instead of failing the whole batch.
+     */
+    @Override
+    @Transactional
+    public List<LoanBatchItem> loanBooks(List<Long> bookIds, Long userId, Integer loanDays) {
+
+        final var user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(format("User with id {0} not found", userId)));
+        final var books = bookRepository.findAllByIdForUpdate(new TreeSet<>(bookIds)).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        final var loans = new LinkedHashMap<Long, LoanEntity>();
+        for (final var bookId : bookIds) {
+            final var book = books.get(bookId);
+            if (book == null || loans.containsKey(bookId) || book.getIsLoaned()) {
+                continue;
+            }
+            book.setIsLoaned(true);
+            loans.put(bookId, newLoan(book, user, loanDays));
+        }
+        loanRepository.insertAll(List.copyOf(loans.values()));
+
+        final var items = new ArrayList<LoanBatchItem>(bookIds.size());
+        final var reported = new HashSet<Long>();
+        for (final var bookId : bookIds) {
+            final var loan = loans.get(bookId);
+            if (!books.containsKey(bookId)) {
+                items.add(LoanBatchItem.failure(bookId, format("Book with id {0} not found", bookId)));
+            } else if (loan == null || !reported.add(bookId)) {
+                items.add(LoanBatchItem.failure(bookId, format("Book with id {0} is already loaned", bookId)));
+            } else {
+                eventPublisher.publishEvent(BookChangedEvent.loaned(bookId));
+                eventPublisher.publishEvent(LoanChangedEvent.opened(loan.getId(), loan.getDueDate()));
+                items.add(LoanBatchItem.success(bookId, loanMapper.toDto(loan)));
+            }
+        }
+
+        log.info("Batch checkout for user {}: {} of {} books loaned", userId, loans.size(), bookIds.size());
+        return items;
+    }
+
+    /**
+     * Returns several loans at once. The loans and then their books are locked in ascending id order, one query
+     * each, before any loan is checked, so a loan returned concurrently is seen as returned; loans that are missing
+     * or already returned are reported per item.
+     */
+    @Override
+    @Transactional
+    public List<LoanBatchItem> refundBooks(List<Long> loanIds) {
+
+        final var ids = new TreeSet<>(loanIds);
+        final var loans = loanRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(LoanEntity::getId, Function.identity()));
+        if (!loans.isEmpty()) {
+            // Fetches the books and users of the locked loans in one query, for the returned items.
+            loanRepository.findAllByIdIn(loans.keySet());
+        }
+        final var bookIds = loans.values().stream()
+                .filter(loan -> loan.getReturnDate() == null)
+                .map(loan -> loan.getBook().getId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        final var books = bookRepository.findAllByIdForUpdate(bookIds).stream()
+                .collect(Collectors.toMap(BookEntity::getId, Function.identity()));
+
+        final var now = ZonedDateTime.now();
+        final var items = new ArrayList<LoanBatchItem>(loanIds.size());
+        for (final var loanId : loanIds) {
+            final var loan = loans.get(loanId);
+            if (loan == null) {
+                items.add(LoanBatchItem.failure(loanId, format("Loan with id {0} not found", loanId)));
+            } else if (loan.getReturnDate() != null) {
+                items.add(LoanBatchItem.failure(loanId, format("Loan with id {0} is already returned", loanId)));
+            } else {
+                final var book = books.get(loan.getBook().getId());
+                loan.setReturnDate(now);
+                book.setIsLoaned(false);
+                eventPublisher.publishEvent(BookChangedEvent.returned(book.getId()));
+                eventPublisher.publishEvent(LoanChangedEvent.closed(loanId));
+                items.add(LoanBatchItem.success(loanId, loanMapper.toDto(loan)));
+            }
+        }
+
+        log.info("Batch return: {} of {} loans returned", items.stream().filter(item -> item.error() == null).count(), loanIds.size());
+        return items;
+    }
 
+    /**
+     * Table statistics cannot estimate a filtered listing, so {@link TotalMode#ESTIMATED} is answered with an exact
+     * count whenever a filter is set; the filtered count runs on the same indexes as the page query.
+     */
     @Override
-    public PaginatedResult<LoanDto> getAllLoans(Integer page, Integer size) {
+    @Transactional(readOnly = true)
+    public PaginatedResult<LoanDto> getAllLoans(LoanFilter filter, Integer page, Integer size, TotalMode totalMode) {
+
+        final var mode = totalMode == TotalMode.ESTIMATED && !filter.isUnrestricted() ? TotalMode.EXACT : totalMode;
+        final var pageable = Pageable.ofSize(size).withPage(page);
+        final var resultPage = mode == TotalMode.EXACT
+                ? loanRepository.findRows(filter, pageable)
+                : loanRepository.findRowSlice(filter, pageable);
+        final var result = PaginatedResults.of(resultPage, mode,
+                () -> tableStatistics.estimatedRowCount(TableStatistics.Table.LOANS), loanMapper::rowToDto);
 
-        final var resultPage = loanRepository.findAll(Pageable.ofSize(size).withPage(page));
-        final var items = resultPage
-                .stream().map(loanMapper::toDto)
-                .toList();
+        log.atDebug()
+                .setMessage("Loans page returned")
+                .addKeyValue("page", page)
+                .addKeyValue("size", result.results().size())
+                .addKeyValue("total", result.totalElements())
+                .addKeyValue("filtered", !filter.isUnrestricted())
+                .log();
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResult<LoanDto> getLoansAfter(LoanFilter filter, String cursor, Integer size) {
 
-        log.info("All loans returned: {}", items);
-        return new PaginatedResult<>(items, resultPage.getTotalElements(), resultPage.getNumber(), resultPage.getSize());
+        final var window = loanRepository.findRowsAfter(filter, KeysetCursor.decode(cursor), size + 1);
+        return KeysetCursor.toResult(window, size, LoanRow::id, loanMapper::rowToDto);
     }
 }
@@ -1,15 +1,23 @@
 package com.library.service.impl;
 
+import com.library.event.UserChangedEvent;
 import com.library.exception.UserNotFoundException;
 import com.library.mapper.UserMapper;
+import com.library.repository.TableStatistics;
 import com.library.repository.UserRepository;
+import com.library.repository.entity.UserEntity;
+import com.library.rest.dto.CursorResult;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.rest.dto.UserDto;
 import com.library.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import static java.text.MessageFormat.format;
 
@@ -20,8 +28,11 @@ public class DefaultUserService implements UserService {
 
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final TableStatistics tableStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
 
         return userRepository.findById(userId)
@@ -34,26 +45,46 @@ public class DefaultUserService implements UserService {
 
         final var newUser = userRepository.save(userMapper.toEntity(user));
         log.info("User with id {} has been created", newUser.getId());
+        eventPublisher.publishEvent(UserChangedEvent.added(newUser.getId()));
         return userMapper.toDto(newUser);
     }
 
     @Override
+    @Transactional
     public void deleteUserById(Long userId) {
 
-        userRepository.deleteById(userId);
-        log.info("User with id {} has been deleted", userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            eventPublisher.publishEvent(UserChangedEvent.removed(userId));
+            log.info("User with id {} has been deleted", userId);
+        });
     }
 
     @Override
-    public PaginatedResult<UserDto> getAllUsers(Integer page, Integer size) {
+    @Transactional(readOnly = true)
+    public PaginatedResult<UserDto> getAllUsers(Integer page, Integer size, TotalMode totalMode) {
 
-        final var resultPage = userRepository.findAll(Pageable.ofSize(size).withPage(page));
-        final var items = resultPage
-                .stream()
-                .map(userMapper::toDto)
-                .toList();
+        final var pageable = Pageable.ofSize(size).withPage(page);
+        final var resultPage = totalMode == TotalMode.EXACT
+                ? userRepository.findAll(pageable)
+                : userRepository.findAllBy(pageable);
+        final var result = PaginatedResults.of(resultPage, totalMode,
+                () -> tableStatistics.estimatedRowCount(TableStatistics.Table.USERS), userMapper::toDto);
+
+        log.atDebug()
+                .setMessage("Users page returned")
+                .addKeyValue("page", page)
+                .addKeyValue("size", result.results().size())
+                .addKeyValue("total", result.totalElements())
+                .log();
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorResult<UserDto> getUsersAfter(String cursor, Integer size) {
 
-        log.info("User list has been returned {}", items);
-        return new PaginatedResult<>(items, resultPage.getTotalElements(), resultPage.getNumber(), resultPage.getSize());
+        final var window = userRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(size + 1));
+        return KeysetCursor.toResult(window, size, UserEntity::getId, userMapper::toDto);
     }
 }
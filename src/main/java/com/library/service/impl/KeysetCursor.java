@@ -0,0 +1,59 @@
+package com.library.service.impl;
+
+import com.library.exception.InvalidCursorException;
+import com.library.rest.dto.CursorResult;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.text.MessageFormat.format;
+
+/**
+ * Opaque continuation token for id ordered listings. The token carries the last id returned, so the next page is
+ * an index range seek ({@code id > ?}) instead of an offset scan.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class KeysetCursor {
+
+    static final long START = 0L;
+
+    private static final String PREFIX = "k1:";
+
+    static String encode(Long lastId) {
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            final var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException(format("Invalid cursor {0}", cursor));
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(format("Invalid cursor {0}", cursor));
+        }
+    }
+
+    /**
+     * Builds the result from a window fetched with {@code size + 1} rows; the extra row only signals that
+     * another page exists.
+     */
+    static <E, D> CursorResult<D> toResult(List<E> window, int size, Function<E, Long> idOf, Function<E, D> mapper) {
+
+        final var hasMore = window.size() > size;
+        final var page = hasMore ? window.subList(0, size) : window;
+        final var nextCursor = hasMore ? encode(idOf.apply(page.getLast())) : null;
+        return new CursorResult<>(page.stream().map(mapper).toList(), nextCursor, size);
+    }
+}
@@ -0,0 +1,35 @@
+package com.library.service.impl;
+
+import com.library.repository.TableStatistics;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class PaginatedResults {
+
+    /**
+     * Maps a page or slice to a {@link PaginatedResult}. Only {@link TotalMode#EXACT} expects a {@link Page}
+     * (the repository ran a count query for it); the other modes are read as a {@link Slice}, which fetches one
+     * extra row to tell whether a next page exists. An estimate that is not available yet leaves the total empty.
+     */
+    static <E, D> PaginatedResult<D> of(Slice<E> slice, TotalMode totalMode, LongSupplier estimate, Function<E, D> mapper) {
+
+        final var items = slice.stream().map(mapper).toList();
+        final Long totalElements = switch (totalMode) {
+            case EXACT -> ((Page<E>) slice).getTotalElements();
+            case ESTIMATED -> {
+                final var estimated = estimate.getAsLong();
+                yield estimated == TableStatistics.UNKNOWN ? null : estimated;
+            }
+            case NONE -> null;
+        };
+        return new PaginatedResult<>(items, totalElements, slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+}
@@ -0,0 +1,248 @@
+package com.library.benchmark;
+
+import com.library.MyLibraryApplication;
+import com.library.reactive.ReactiveLibraryApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Puts the blocking API (Tomcat, JPA) and the reactive read API (Netty, R2DBC) side by side under the same read
+ * mix: {@code getBookById}, {@code getAllBooks}, {@code getUserById} and {@code getAllUsers}. Both applications run
+ * in this JVM over one database; each concurrency level is played against one of them at a time, every client
+ * holding its own connection. Every run first plays the same load for the warm-up period without recording it, so
+ * that the JIT, the connection pools and the servers' event loops are warm before the latencies are measured.
+ * <p>
+ * Runs against a local PostgreSQL when one answers at {@code benchmark.postgres.url} and against in-memory H2
+ * otherwise. Excluded from the regular build; run with
+ * {@code mvn test -Preactive,benchmark -Dtest=ReactiveReadBenchmark}. Tunables: {@code benchmark.concurrency}
+ * (comma separated connection counts), {@code benchmark.duration} and {@code benchmark.warmup} (ISO-8601), {@code benchmark.pool-size} (database
+ * connections of each application), {@code benchmark.books} and {@code benchmark.users}.
+ */
+@Tag("benchmark")
+class ReactiveReadBenchmark {
+
+    private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("benchmark.concurrency", "100,1000,4000")
+            .split(",")).mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT15S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 10);
+    private static final int BOOKS = Integer.getInteger("benchmark.books", 1_000);
+    private static final int USERS = Integer.getInteger("benchmark.users", 100);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    void compareBlockingAndReactiveReads() throws Exception {
+
+        final var database = Database.pick();
+        try (var blocking = blocking(database); var reactive = reactive(database)) {
+            seed(blocking.getBean(JdbcTemplate.class));
+
+            final var results = new ArrayList<Result>();
+            for (final var connections : CONCURRENCY) {
+                results.add(run("blocking", port(blocking), connections));
+                results.add(run("reactive", port(reactive), connections));
+            }
+
+            System.out.printf("%n%s, %s per run after %s of warm-up, %d database connections per application%n",
+                    database.name(), DURATION, WARMUP, POOL_SIZE);
+            System.out.printf("%-10s %12s %10s %10s %10s %10s %10s%n",
+                    "stack", "connections", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (final var result : results) {
+                System.out.printf("%-10s %12d %10.1f %10.2f %10.2f %10.2f %10d%n", result.stack(), result.connections(),
+                        result.latencies().getTotalCount() / (DURATION.toMillis() / 1000d),
+                        result.latencies().getValueAtPercentile(50) / 1e6, result.latencies().getValueAtPercentile(99) / 1e6,
+                        result.latencies().getMaxValue() / 1e6, result.errors());
+            }
+
+            assertThat(results).allSatisfy(result -> assertThat(result.latencies().getTotalCount()).isPositive());
+        }
+    }
+
+    private static ConfigurableApplicationContext blocking(Database database) {
+
+        return new SpringApplicationBuilder(MyLibraryApplication.class)
+                .run(arguments(
+                        "spring.datasource.url=" + database.jdbcUrl(),
+                        "spring.datasource.username=" + database.username(),
+                        "spring.datasource.password=" + database.password(),
+                        "spring.datasource.driver-class-name=" + database.driver(),
+                        "spring.jpa.database=" + database.jpaDatabase(),
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "library.cache.enabled=false"));
+    }
+
+    private static ConfigurableApplicationContext reactive(Database database) {
+
+        return new SpringApplicationBuilder(ReactiveLibraryApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(arguments(
+                        "spring.r2dbc.url=" + database.r2dbcUrl(),
+                        "spring.r2dbc.username=" + database.username(),
+                        "spring.r2dbc.password=" + database.password(),
+                        "spring.r2dbc.pool.max-size=" + POOL_SIZE,
+                        "spring.liquibase.url=" + database.jdbcUrl(),
+                        "spring.liquibase.user=" + database.username(),
+                        "spring.liquibase.password=" + database.password()));
+    }
+
+    /**
+     * Passed as command line arguments rather than default properties so that they win over {@code application.yaml}.
+     */
+    private static String[] arguments(String... properties) {
+
+        return Stream.concat(
+                        Stream.of("server.port=0", "management.server.port=0", "server.compression.enabled=false",
+                                "spring.sql.init.mode=never", "logging.level.root=WARN"),
+                        Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+
+        jdbcTemplate.batchUpdate("insert into books (title, author, isbn, is_loaned) values (?, ?, ?, ?)",
+                IntStream.range(0, BOOKS)
+                        .mapToObj(i -> new Object[]{"Read bench " + i, "Bench", "read-bench-" + System.nanoTime() + "-" + i, i % 3 == 0})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into users (first_name, last_name, email) values (?, ?, ?)",
+                IntStream.range(0, USERS)
+                        .mapToObj(i -> new Object[]{"Read", "Bench " + i, "read-bench-" + System.nanoTime() + "-" + i + "@example.com"})
+                        .toList());
+    }
+
+    private Result run(String stack, int port, int connections) throws Exception {
+
+        final var baseUri = URI.create("http://localhost:" + port);
+        final var bookIds = fetchIds(baseUri.resolve("/library/books?page=0&size=" + BOOKS));
+        final var userIds = fetchIds(baseUri.resolve("/library/users?page=0&size=" + USERS));
+
+        drive(baseUri, bookIds, userIds, connections, WARMUP, new ConcurrentHistogram(3), new LongAdder());
+        final var latencies = new ConcurrentHistogram(3);
+        final var errors = new LongAdder();
+        drive(baseUri, bookIds, userIds, connections, DURATION, latencies, errors);
+        return new Result(stack, connections, latencies, errors.sum());
+    }
+
+    private void drive(URI baseUri, List<Long> bookIds, List<Long> userIds, int connections, Duration duration,
+                       Histogram latencies, LongAdder errors) {
+
+        final var deadline = System.nanoTime() + duration.toNanos();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < connections; i++) {
+                executor.submit(() -> {
+                    final var random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        final var request = HttpRequest.newBuilder(baseUri.resolve(pickPath(random, bookIds, userIds)))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        final var start = System.nanoTime();
+                        try {
+                            final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.recordValue(System.nanoTime() - start);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * Mostly single-resource reads, as issued by the edge tier: 70% books by id, 15% users by id, 10% book pages and
+     * 5% user pages.
+     */
+    private static String pickPath(ThreadLocalRandom random, List<Long> bookIds, List<Long> userIds) {
+
+        final var ticket = random.nextInt(100);
+        if (ticket < 70) {
+            return "/library/books/" + bookIds.get(random.nextInt(bookIds.size()));
+        } else if (ticket < 85) {
+            return "/library/users/" + userIds.get(random.nextInt(userIds.size()));
+        } else if (ticket < 95) {
+            return "/library/books?page=" + random.nextInt(BOOKS / 10) + "&size=10";
+        }
+        return "/library/users?page=" + random.nextInt(USERS / 10) + "&size=10";
+    }
+
+    private List<Long> fetchIds(URI uri) throws Exception {
+
+        final var response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return Pattern.compile("\"id\":(\\d+)").matcher(response.body()).results()
+                .map(match -> Long.valueOf(match.group(1)))
+                .toList();
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private record Result(String stack, int connections, Histogram latencies, long errors) {
+    }
+
+    private record Database(String name, String jdbcUrl, String r2dbcUrl, String username, String password,
+                            String driver, String jpaDatabase) {
+
+        static Database pick() {
+
+            final var postgresUrl = System.getProperty("benchmark.postgres.url", "jdbc:postgresql://localhost:5433/library");
+            final var username = System.getProperty("benchmark.postgres.username", "library");
+            final var password = System.getProperty("benchmark.postgres.password", "library");
+            if (isReachable(postgresUrl, username, password)) {
+                return new Database("PostgreSQL", postgresUrl, postgresUrl.replaceFirst("^jdbc:", "r2dbc:"),
+                        username, password, "org.postgresql.Driver", "postgresql");
+            }
+            return new Database("H2", "jdbc:h2:mem:readbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                    "r2dbc:h2:mem:///readbench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "", "org.h2.Driver", "h2");
+        }
+
+        private static boolean isReachable(String url, String username, String password) {
+
+            DriverManager.setLoginTimeout(2);
+            try (var ignored = DriverManager.getConnection(url, username, password)) {
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.library.reactive;
+
+import com.library.exception.ApiErrorResponse;
+import com.library.reactive.repository.ReactiveBookRepository;
+import com.library.reactive.repository.ReactiveUserRepository;
+import com.library.reactive.repository.entity.BookRow;
+import com.library.reactive.repository.entity.UserRow;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = ReactiveLibraryApplication.class, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.liquibase.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.liquibase.user=sa",
+        "spring.liquibase.password=",
+        "spring.sql.init.mode=never"})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveReadApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveBookRepository bookRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    private List<BookRow> books;
+    private UserRow user;
+
+    @BeforeEach
+    void setUp() {
+
+        bookRepository.deleteAll().block();
+        userRepository.deleteAll().block();
+        books = bookRepository.saveAll(IntStream.rangeClosed(1, 3)
+                        .mapToObj(i -> new BookRow(null, "Dune " + i, "Frank Herbert", "978-0-441-1727" + i, i == 2, null))
+                        .toList())
+                .collectList().block();
+        user = userRepository.save(new UserRow(null, "Paul", "Atreides", "paul@arrakis.org", null)).block();
+    }
+
+    @Test
+    void getBookById() {
+
+        final var book = books.getFirst();
+
+        final var actual = webTestClient.get().uri("/library/books/{bookId}", book.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(actual).isEqualTo(new BookDto(book.id(), "Dune 1", "Frank Herbert", "978-0-441-17271", false, 0L));
+    }
+
+    @Test
+    void when_getBookById_then_return_404() {
+
+        final var actual = webTestClient.get().uri("/library/books/{bookId}", -1)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ApiErrorResponse.class)
+                .returnResult().getResponseBody();
+
+        assertThat(actual).isEqualTo(new ApiErrorResponse(404, "Book with id -1 not found"));
+    }
+
+    @Test
+    void getAllBooks() {
+
+        final var actual = webTestClient.get().uri("/library/books?page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PaginatedResult<BookDto>>() {
+                })
+                .returnResult().getResponseBody();
+
+        assertThat(actual.results()).extracting(BookDto::id).containsExactly(books.get(0).id(), books.get(1).id());
+        assertThat(actual.results().get(1).isLoaned()).isTrue();
+        assertThat(actual.totalElements()).isEqualTo(3);
+        assertThat(actual.hasNext()).isTrue();
+    }
+
+    @Test
+    void getUserById() {
+
+        final var actual = webTestClient.get().uri("/library/users/{userId}", user.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(UserDto.class)
+                .returnResult().getResponseBody();
+
+        assertThat(actual).isEqualTo(new UserDto(user.id(), "Paul", "Atreides", "paul@arrakis.org", 0L));
+    }
+
+    @Test
+    void getAllUsers() {
+
+        final var actual = webTestClient.get().uri("/library/users?page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<PaginatedResult<UserDto>>() {
+                })
+                .returnResult().getResponseBody();
+
+        assertThat(actual.results()).extracting(UserDto::id).containsExactly(user.id());
+        assertThat(actual.totalElements()).isEqualTo(1);
+        assertThat(actual.hasNext()).isFalse();
+    }
+}
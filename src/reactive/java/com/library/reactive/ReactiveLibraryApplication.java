@@ -0,0 +1,38 @@
+package com.library.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.ReactiveManagementWebSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveSecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Non-blocking variant of the catalog and user read paths, served by WebFlux on Netty and reading through R2DBC.
+ * It shares the DTOs and the Liquibase schema with the blocking API and is built with the {@code reactive} Maven
+ * profile; run it with the {@code reactive} Spring profile, which {@link #main} activates.
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, ReactiveSecurityAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class, ReactiveManagementWebSecurityAutoConfiguration.class})
+public class ReactiveLibraryApplication {
+
+    public static void main(String[] args) {
+
+        new SpringApplicationBuilder(ReactiveLibraryApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    /**
+     * Tomcat is on the classpath for the blocking API and would otherwise be picked as the reactive server too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,36 @@
+package com.library.reactive.exception;
+
+import com.library.exception.ApiErrorResponse;
+import com.library.exception.BookNotFoundException;
+import com.library.exception.UserNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Maps the domain errors of the read paths to the same {@link ApiErrorResponse} bodies the blocking API returns.
+ */
+@Slf4j
+@ControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler({UserNotFoundException.class})
+    public ResponseEntity<ApiErrorResponse> handleUserNotFoundException(UserNotFoundException ex) {
+
+        log.warn("User not found: {}", ex.getMessage());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler({BookNotFoundException.class})
+    public ResponseEntity<ApiErrorResponse> handleBookNotFoundException(BookNotFoundException ex) {
+
+        log.warn("Book not found: {}", ex.getMessage());
+
+        final var errorResponse = new ApiErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+}
@@ -0,0 +1,10 @@
+package com.library.reactive.mapper;
+
+import com.library.mapper.BaseMapper;
+import com.library.reactive.repository.entity.BookRow;
+import com.library.rest.dto.BookDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ReactiveBookMapper extends BaseMapper<BookDto, BookRow> {
+}
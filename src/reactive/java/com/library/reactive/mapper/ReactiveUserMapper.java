@@ -0,0 +1,10 @@
+package com.library.reactive.mapper;
+
+import com.library.mapper.BaseMapper;
+import com.library.reactive.repository.entity.UserRow;
+import com.library.rest.dto.UserDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ReactiveUserMapper extends BaseMapper<UserDto, UserRow> {
+}
@@ -0,0 +1,13 @@
+package com.library.reactive.repository;
+
+import com.library.reactive.repository.entity.BookRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<BookRow, Long> {
+
+    Flux<BookRow> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.library.reactive.repository;
+
+import com.library.reactive.repository.entity.UserRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+
+    Flux<UserRow> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.library.reactive.repository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("books")
+public record BookRow(@Id Long id, String title, String author, String isbn, Boolean isLoaned, @Version Long version) {
+}
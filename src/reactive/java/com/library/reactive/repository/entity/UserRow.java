@@ -0,0 +1,9 @@
+package com.library.reactive.repository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("users")
+public record UserRow(@Id Long id, String firstName, String lastName, String email, @Version Long version) {
+}
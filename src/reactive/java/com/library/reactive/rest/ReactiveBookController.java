@@ -0,0 +1,33 @@
+package com.library.reactive.rest;
+
+import com.library.reactive.service.ReactiveBookService;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.PaginatedResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/library/books")
+public class ReactiveBookController {
+
+    private final ReactiveBookService bookService;
+
+    @GetMapping("/{bookId}")
+    public Mono<BookDto> getBookById(@PathVariable("bookId") Long bookId) {
+
+        return bookService.getBookById(bookId);
+    }
+
+    @GetMapping
+    public Mono<PaginatedResult<BookDto>> getAllBooks(@RequestParam(defaultValue = "1") Integer page,
+                                                      @RequestParam(defaultValue = "10") Integer size) {
+
+        return bookService.getAllBooks(page, size);
+    }
+}
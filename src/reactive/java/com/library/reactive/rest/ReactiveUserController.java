@@ -0,0 +1,32 @@
+package com.library.reactive.rest;
+
+import com.library.reactive.service.ReactiveUserService;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.UserDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/library/users")
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    @GetMapping("/{userId}")
+    public Mono<UserDto> getUserById(@PathVariable Long userId) {
+
+        return userService.getUserById(userId);
+    }
+
+    @GetMapping
+    public Mono<PaginatedResult<UserDto>> getAllUsers(@RequestParam Integer page, @RequestParam Integer size) {
+
+        return userService.getAllUsers(page, size);
+    }
+}
@@ -0,0 +1,42 @@
+package com.library.reactive.service;
+
+import com.library.exception.BookNotFoundException;
+import com.library.reactive.mapper.ReactiveBookMapper;
+import com.library.reactive.repository.ReactiveBookRepository;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.PaginatedResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import static java.text.MessageFormat.format;
+
+@RequiredArgsConstructor
+@Service
+public class ReactiveBookService {
+
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveBookMapper bookMapper;
+
+    public Mono<BookDto> getBookById(Long bookId) {
+
+        return bookRepository.findById(bookId)
+                .map(bookMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException(format("Book with id {0} not found", bookId))));
+    }
+
+    /**
+     * Reads the page and the exact total concurrently, on two pooled connections.
+     */
+    public Mono<PaginatedResult<BookDto>> getAllBooks(Integer page, Integer size) {
+
+        final var books = bookRepository.findAllBy(PageRequest.of(page, size, Sort.by("id")))
+                .map(bookMapper::toDto)
+                .collectList();
+        return Mono.zip(books, bookRepository.count())
+                .map(result -> new PaginatedResult<>(result.getT1(), result.getT2(), page, size,
+                        (long) (page + 1) * size < result.getT2()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.library.reactive.service;
+
+import com.library.exception.UserNotFoundException;
+import com.library.reactive.mapper.ReactiveUserMapper;
+import com.library.reactive.repository.ReactiveUserRepository;
+import com.library.rest.dto.UserDto;
+import com.library.rest.dto.PaginatedResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import static java.text.MessageFormat.format;
+
+@RequiredArgsConstructor
+@Service
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveUserMapper userMapper;
+
+    public Mono<UserDto> getUserById(Long userId) {
+
+        return userRepository.findById(userId)
+                .map(userMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(format("User with id {0} not found", userId))));
+    }
+
+    public Mono<PaginatedResult<UserDto>> getAllUsers(Integer page, Integer size) {
+
+        final var users = userRepository.findAllBy(PageRequest.of(page, size, Sort.by("id")))
+                .map(userMapper::toDto)
+                .collectList();
+        return Mono.zip(users, userRepository.count())
+                .map(result -> new PaginatedResult<>(result.getT1(), result.getT2(), page, size,
+                        (long) (page + 1) * size < result.getT2()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.library.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuditSpillFileTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void a_failed_replay_resumes_after_the_last_written_batch() throws Exception {
+
+        final var spillFile = new AuditSpillFile(directory.resolve("spill.log"));
+        spillFile.append(LongStream.rangeClosed(1, 5).mapToObj(AuditSpillFileTest::event).toList());
+        final var written = new ArrayList<Long>();
+
+        assertThatThrownBy(() -> spillFile.replay(2, batch -> {
+            if (written.size() == 2) {
+                throw new IllegalStateException("database down");
+            }
+            batch.forEach(event -> written.add(event.entityId()));
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(spillFile.replay(2, batch -> batch.forEach(event -> written.add(event.entityId())))).isEqualTo(3);
+        assertThat(written).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(spillFile.isEmpty()).isTrue();
+        assertThat(directory.resolve("spill.log.replay.progress")).doesNotExist();
+    }
+
+    @Test
+    void unparseable_lines_are_quarantined() throws Exception {
+
+        final var spill = directory.resolve("spill.log");
+        final var spillFile = new AuditSpillFile(spill);
+        spillFile.append(List.of(event(1)));
+        Files.writeString(spill, "17000;USER_DEL\nnot-a-number;USER_ADDED;2\n1700000000000;NO_SUCH_ACTION;3\n",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        spillFile.append(List.of(event(4)));
+        final var written = new ArrayList<Long>();
+
+        assertThat(spillFile.replay(10, batch -> batch.forEach(event -> written.add(event.entityId())))).isEqualTo(2);
+
+        assertThat(written).containsExactly(1L, 4L);
+        assertThat(spillFile.isEmpty()).isTrue();
+        assertThat(Files.readAllLines(directory.resolve("spill.log.quarantine")))
+                .containsExactly("17000;USER_DEL", "not-a-number;USER_ADDED;2", "1700000000000;NO_SUCH_ACTION;3");
+    }
+
+    private static AuditEvent event(long entityId) {
+
+        return new AuditEvent(AuditEvent.Action.USER_ADDED, entityId, Instant.ofEpochMilli(1_700_000_000_000L + entityId));
+    }
+}
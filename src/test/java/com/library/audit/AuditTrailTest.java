@@ -0,0 +1,114 @@
+package com.library.audit;
+
+import com.library.config.AuditProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
+import com.library.event.UserChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AuditTrailTest {
+
+    private static final String CREATE_TABLE = "create table audit_events (id bigint auto_increment primary key, " +
+            "action varchar(32) not null, entity_id bigint not null, occurred_at timestamp not null)";
+
+    @TempDir
+    private Path directory;
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:audit;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    private AuditTrail auditTrail;
+    private Path spillFile;
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.execute("drop table if exists audit_events");
+        spillFile = directory.resolve("audit-spill.log");
+        auditTrail = new AuditTrail(new AuditProperties(8, 2, Duration.ofMillis(10), Duration.ofMillis(50), spillFile),
+                jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        if (auditTrail.isRunning()) {
+            auditTrail.stop();
+        }
+    }
+
+    @Test
+    void mutations_are_written_in_batches() {
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        auditTrail.start();
+
+        auditTrail.onBookChanged(BookChangedEvent.removed(1L));
+        auditTrail.onBookChanged(BookChangedEvent.loaned(1L));
+        auditTrail.onBookChanged(BookChangedEvent.removed(9L).toRemote());
+        auditTrail.onUserChanged(UserChangedEvent.added(2L));
+        auditTrail.onLoanChanged(LoanChangedEvent.opened(3L, ZonedDateTime.now()));
+        auditTrail.onLoanChanged(LoanChangedEvent.closed(3L));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditTrail.getWritten() == 4);
+        assertThat(jdbcTemplate.queryForList("select action || ':' || entity_id from audit_events order by id", String.class))
+                .containsExactly("BOOK_DELETED:1", "USER_ADDED:2", "BOOK_LOANED:3", "BOOK_REFUNDED:3");
+    }
+
+    @Test
+    void events_spill_to_disk_while_the_database_is_unavailable_and_are_replayed_later() {
+
+        auditTrail.start();
+        for (var i = 1L; i <= 20; i++) {
+            auditTrail.onUserChanged(UserChangedEvent.removed(i));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditTrail.getSpilled() == 20);
+        assertThat(auditTrail.getDropped()).isZero();
+
+        jdbcTemplate.execute(CREATE_TABLE);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditTrail.getWritten() == 20);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct entity_id) from audit_events", Integer.class)).isEqualTo(20);
+        assertThat(Files.exists(spillFile)).isFalse();
+    }
+
+    @Test
+    void a_garbled_spill_file_does_not_stop_the_writer() throws Exception {
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        Files.writeString(directory.resolve("audit-spill.log.replay"), "1700000000000;USER_ADDED;5\n17000;USER_\n");
+        auditTrail.start();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditTrail.getWritten() == 1);
+        auditTrail.onUserChanged(UserChangedEvent.added(6L));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> auditTrail.getWritten() == 2);
+        assertThat(Files.readAllLines(directory.resolve("audit-spill.log.quarantine"))).containsExactly("17000;USER_");
+    }
+
+    @Test
+    void stop_writes_what_is_still_buffered() {
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        auditTrail.onBookChanged(BookChangedEvent.removed(7L));
+        auditTrail.start();
+
+        auditTrail.stop();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from audit_events", Integer.class)).isOne();
+    }
+}
@@ -0,0 +1,86 @@
+package com.library.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void elements_come_out_in_order_until_the_ring_is_full() {
+
+        final var ring = new MpmcRingBuffer<Integer>(4);
+
+        for (var i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        assertThat(ring.poll()).isZero();
+        assertThat(ring.offer(4)).isTrue();
+        final var drained = new ArrayList<Integer>();
+        assertThat(ring.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    void capacity_must_be_a_power_of_two() {
+
+        assertThatThrownBy(() -> new MpmcRingBuffer<>(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrent_producers_and_consumers_hand_over_every_element_once() throws Exception {
+
+        final var producers = 4;
+        final var perProducer = 20_000;
+        final var ring = new MpmcRingBuffer<Integer>(256);
+        final var consumed = new ConcurrentLinkedQueue<Integer>();
+        final var remaining = new AtomicInteger(producers * perProducer);
+        final var start = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(producers * 2)) {
+            for (var p = 0; p < producers; p++) {
+                final var offset = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < perProducer; i++) {
+                        while (!ring.offer(offset + i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+                executor.submit(() -> {
+                    start.await();
+                    while (remaining.get() > 0) {
+                        final var element = ring.poll();
+                        if (element != null) {
+                            consumed.add(element);
+                            remaining.decrementAndGet();
+                        } else {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(consumed).hasSize(producers * perProducer).doesNotHaveDuplicates();
+        assertThat(ring.poll()).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package com.library.availability;
+
+import com.library.availability.BookAvailability.Availability;
+import com.library.event.BookChangedEvent;
+import com.library.repository.projection.BookLoanState;
+import com.library.rest.dto.BookDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookAvailabilityTest {
+
+    private BookAvailability availability;
+
+    @BeforeEach
+    void setUp() {
+
+        availability = new BookAvailability();
+        availability.load(List.of(
+                new BookLoanState(1L, false),
+                new BookLoanState(2L, true),
+                new BookLoanState(3L, false),
+                new BookLoanState(5_000_000_000L, false)));
+    }
+
+    @Test
+    void availabilityReflectsLoadedRows() {
+
+        assertThat(availability.of(1L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(availability.of(2L)).isEqualTo(Availability.LOANED);
+        assertThat(availability.of(4L)).isEqualTo(Availability.UNKNOWN);
+        assertThat(availability.of(5_000_000_000L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(availability.size()).isEqualTo(4);
+        assertThat(availability.loanedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsUpdateAvailability() {
+
+        availability.apply(BookChangedEvent.loaned(1L));
+        availability.apply(BookChangedEvent.returned(2L));
+        availability.apply(BookChangedEvent.added(new BookDto(7L, "Dune", "Frank Herbert", "978-0-441-17271-9", false, 0L)));
+        availability.apply(BookChangedEvent.removed(3L));
+        availability.apply(BookChangedEvent.loaned(8L));
+
+        assertThat(availability.of(1L)).isEqualTo(Availability.LOANED);
+        assertThat(availability.of(2L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(availability.of(3L)).isEqualTo(Availability.UNKNOWN);
+        assertThat(availability.of(7L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(availability.of(8L)).isEqualTo(Availability.UNKNOWN);
+    }
+
+    @Test
+    void availableAfterSkipsLoanedBooksInIdOrder() {
+
+        assertThat(availability.availableAfter(0L, 10)).containsExactly(1L, 3L, 5_000_000_000L);
+        assertThat(availability.availableAfter(1L, 1)).containsExactly(3L);
+        assertThat(availability.availableAfter(5_000_000_000L, 10)).isEmpty();
+        assertThat(availability.availableAfter(Long.MAX_VALUE, 10)).isEmpty();
+        assertThat(availability.availableAfter(0L, 0)).isEmpty();
+        assertThat(availability.availableAfter(0L, Integer.MIN_VALUE)).isEmpty();
+        assertThat(availability.availableAfter(0L, Integer.MAX_VALUE)).containsExactly(1L, 3L, 5_000_000_000L);
+    }
+
+    @Test
+    void changesDuringLoadWinOverLoadedRows() {
+
+        final var reloaded = new BookAvailability();
+        reloaded.load(() -> LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> {
+                    if (id == 1) {
+                        reloaded.apply(BookChangedEvent.returned(2L));
+                        reloaded.apply(BookChangedEvent.removed(3L));
+                    }
+                    return new BookLoanState(id, id == 2);
+                })
+                .iterator());
+
+        assertThat(reloaded.of(1L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(reloaded.of(2L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(reloaded.of(3L)).isEqualTo(Availability.UNKNOWN);
+    }
+
+    @Test
+    void reloadReplacesStateThatMissedChanges() {
+
+        availability.load(List.of(new BookLoanState(1L, true), new BookLoanState(7L, false)));
+
+        assertThat(availability.of(1L)).isEqualTo(Availability.LOANED);
+        assertThat(availability.of(3L)).isEqualTo(Availability.UNKNOWN);
+        assertThat(availability.of(7L)).isEqualTo(Availability.AVAILABLE);
+        assertThat(availability.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,319 @@
+package com.library.benchmark;
+
+import com.library.exception.BookAlreadyLoanedException;
+import com.library.repository.BookRepository;
+import com.library.repository.UserRepository;
+import com.library.repository.entity.BookEntity;
+import com.library.repository.entity.UserEntity;
+import com.library.service.BookService;
+import com.library.service.LoanService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link LoanService#loanBook} and {@link LoanService#refundBook} from many threads over a few popular books
+ * and checks that no book is ever loaned twice.
+ * <p>
+ * Runs against a local PostgreSQL when one answers at {@code stress.postgres.url} and against in-memory H2 in
+ * PostgreSQL mode otherwise. Excluded from the regular build; run with
+ * {@code mvn test -Pbenchmark -Dtest=CheckoutContentionBenchmark}. Tunables (system properties):
+ * <ul>
+ *     <li>{@code stress.threads} (200), {@code stress.duration} (PT20S), {@code stress.pool-size} (20)</li>
+ *     <li>{@code stress.mix}, weights of checkout, refund and read, e.g. {@code checkout:45,refund:35,read:20}</li>
+ *     <li>{@code stress.books} (1000), {@code stress.hot-books} (10) and {@code stress.hot-ratio} (0.9), the share
+ *     of operations aimed at the hot books; 0 gives a uniform distribution</li>
+ *     <li>{@code stress.checkout-mode} ({@code locking} or {@code conditional})</li>
+ * </ul>
+ * Lock wait is the time spent in the statements that take the book's row lock ({@code findByIdForUpdate},
+ * {@code findAllByIdForUpdate} and {@code markLoaned}), which return once the lock is granted.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "logging.level.com.library=WARN")
+class CheckoutContentionBenchmark {
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 200);
+    private static final Duration DURATION = Duration.parse(System.getProperty("stress.duration", "PT20S"));
+    private static final int BOOKS = Integer.getInteger("stress.books", 1_000);
+    private static final int HOT_BOOKS = Integer.getInteger("stress.hot-books", 10);
+    private static final double HOT_RATIO = Double.parseDouble(System.getProperty("stress.hot-ratio", "0.9"));
+    private static final int USERS = 50;
+    private static final Map<Operation, Integer> MIX = parseMix(System.getProperty("stress.mix", "checkout:45,refund:35,read:20"));
+
+    private static final Histogram LOCK_WAITS = new ConcurrentHistogram(3);
+    private static final Set<String> LOCKING_METHODS = Set.of("findByIdForUpdate", "findAllByIdForUpdate", "markLoaned");
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+
+        final var postgresUrl = System.getProperty("stress.postgres.url", "jdbc:postgresql://localhost:5433/library");
+        final var username = System.getProperty("stress.postgres.username", "library");
+        final var password = System.getProperty("stress.postgres.password", "library");
+        if (isReachable(postgresUrl, username, password)) {
+            registry.add("spring.datasource.url", () -> postgresUrl);
+            registry.add("spring.datasource.username", () -> username);
+            registry.add("spring.datasource.password", () -> password);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.jpa.database", () -> "postgresql");
+        } else {
+            registry.add("spring.datasource.url", () -> "jdbc:h2:mem:stress;MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000");
+            registry.add("spring.datasource.username", () -> "sa");
+            registry.add("spring.datasource.password", () -> "");
+            registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+            registry.add("spring.jpa.database", () -> "h2");
+        }
+        registry.add("spring.sql.init.mode", () -> "never");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> Integer.getInteger("stress.pool-size", 20));
+        registry.add("library.loans.checkout-mode", () -> System.getProperty("stress.checkout-mode", "locking"));
+    }
+
+    @Test
+    void checkoutRush() throws Exception {
+
+        final var bookIds = seedBooks();
+        final var userIds = seedUsers();
+
+        final var latencies = new EnumMap<Operation, Histogram>(Operation.class);
+        for (final var operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+        }
+        final var loaned = new LongAdder();
+        final var conflicts = new LongAdder();
+        final var errors = new ConcurrentLinkedQueue<Throwable>();
+        final var doubleLoans = new LongAdder();
+        final var openLoansByBook = new ConcurrentHashMap<Long, Long>();
+        final var openLoans = new ConcurrentLinkedQueue<OpenLoan>();
+        final var weightTotal = MIX.values().stream().mapToInt(Integer::intValue).sum();
+
+        LOCK_WAITS.reset();
+        final var start = new CountDownLatch(1);
+        final var deadline = new long[1];
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var i = 0; i < THREADS; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    final var random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline[0]) {
+                        var operation = pick(random.nextInt(weightTotal));
+                        final var openLoan = operation == Operation.REFUND ? openLoans.poll() : null;
+                        if (operation == Operation.REFUND && openLoan == null) {
+                            operation = Operation.CHECKOUT;
+                        }
+                        final var began = System.nanoTime();
+                        try {
+                            switch (operation) {
+                                case CHECKOUT -> {
+                                    final var bookId = bookIds.get(pickBook(random));
+                                    final var loan = loanService.loanBook(bookId, userIds.get(random.nextInt(userIds.size())), 14);
+                                    if (openLoansByBook.putIfAbsent(bookId, loan.id().longValue()) != null) {
+                                        doubleLoans.increment();
+                                    }
+                                    loaned.increment();
+                                    openLoans.add(new OpenLoan(loan.id().longValue(), bookId));
+                                }
+                                case REFUND -> {
+                                    // Forgotten before the return commits: the book cannot be loaned again until then.
+                                    openLoansByBook.remove(openLoan.bookId(), openLoan.loanId());
+                                    loanService.refundBook(openLoan.loanId());
+                                }
+                                case READ -> bookService.getBookById(bookIds.get(pickBook(random)));
+                            }
+                        } catch (BookAlreadyLoanedException e) {
+                            conflicts.increment();
+                        } catch (RuntimeException e) {
+                            errors.add(e);
+                        }
+                        latencies.get(operation).recordValue(System.nanoTime() - began);
+                    }
+                    return null;
+                });
+            }
+            deadline[0] = System.nanoTime() + DURATION.toNanos();
+            start.countDown();
+        }
+
+        report(latencies, loaned.sum(), conflicts.sum(), errors);
+
+        assertThat(doubleLoans.sum()).as("books loaned twice while the run was in progress").isZero();
+        assertThat(jdbcTemplate.queryForList("select book_id from loans where return_date is null and book_id between ? and ? " +
+                        "group by book_id having count(*) > 1", Long.class, bookIds.getFirst(), bookIds.getLast()))
+                .as("books with more than one open loan").isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from books b where b.id between ? and ? and " +
+                        "(b.is_loaned = true) <> (select count(*) > 0 from loans l where l.book_id = b.id and l.return_date is null)",
+                Long.class, bookIds.getFirst(), bookIds.getLast()))
+                .as("books whose loaned flag disagrees with their open loans").isZero();
+        assertThat(errors).as("unexpected failures").isEmpty();
+    }
+
+    private static int pickBook(ThreadLocalRandom random) {
+
+        if (HOT_BOOKS > 0 && random.nextDouble() < HOT_RATIO) {
+            return random.nextInt(Math.min(HOT_BOOKS, BOOKS));
+        }
+        return random.nextInt(BOOKS);
+    }
+
+    private static Operation pick(int ticket) {
+
+        var remaining = ticket;
+        for (final var entry : MIX.entrySet()) {
+            remaining -= entry.getValue();
+            if (remaining < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.READ;
+    }
+
+    private List<Long> seedBooks() {
+
+        final var run = UUID.randomUUID().toString().substring(0, 8);
+        final var books = new ArrayList<BookEntity>(BOOKS);
+        for (var i = 0; i < BOOKS; i++) {
+            books.add(BookEntity.builder()
+                    .title("Stress " + run + " " + i)
+                    .author("Harness")
+                    .isbn("stress-" + run + "-" + i)
+                    .isLoaned(false)
+                    .build());
+        }
+        return bookRepository.saveAll(books).stream().map(BookEntity::getId).sorted().toList();
+    }
+
+    private List<Long> seedUsers() {
+
+        final var users = new ArrayList<UserEntity>(USERS);
+        for (var i = 0; i < USERS; i++) {
+            final var user = new UserEntity();
+            user.setFirstName("Stress");
+            user.setLastName("User " + i);
+            user.setEmail("stress-" + UUID.randomUUID() + "@example.com");
+            users.add(user);
+        }
+        return userRepository.saveAll(users).stream().map(UserEntity::getId).toList();
+    }
+
+    private static void report(Map<Operation, Histogram> latencies, long loaned, long conflicts, Iterable<Throwable> errors) {
+
+        final var seconds = DURATION.toMillis() / 1000d;
+        System.out.printf("%n%d threads, %s, %d books (%d hot at %.0f%%), mix %s%n",
+                THREADS, DURATION, BOOKS, HOT_BOOKS, HOT_RATIO * 100, MIX);
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "operation", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        latencies.forEach((operation, histogram) -> printRow(operation.name().toLowerCase(), histogram, seconds));
+        printRow("lock wait", LOCK_WAITS, seconds);
+        System.out.printf("loaned %d, conflicts %d, lock wait total %.1f s%n", loaned, conflicts,
+                LOCK_WAITS.getMean() * LOCK_WAITS.getTotalCount() / 1e9);
+        errors.forEach(error -> System.out.println("error: " + error));
+    }
+
+    private static void printRow(String name, Histogram histogram, double seconds) {
+
+        System.out.printf("%-10s %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxValue() / 1e6);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+
+        final var weights = new LinkedHashMap<Operation, Integer>();
+        for (final var part : mix.split(",")) {
+            final var weight = part.split(":");
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return weights;
+    }
+
+    private static boolean isReachable(String url, String username, String password) {
+
+        DriverManager.setLoginTimeout(2);
+        try (var ignored = DriverManager.getConnection(url, username, password)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private record OpenLoan(Long loanId, Long bookId) {
+    }
+
+    private enum Operation {
+        CHECKOUT, REFUND, READ
+    }
+
+    @TestConfiguration
+    static class LockWaitTiming {
+
+        @Bean
+        static BeanPostProcessor lockWaitTimer() {
+
+            final MethodInterceptor timer = (MethodInvocation invocation) -> {
+                if (!LOCKING_METHODS.contains(invocation.getMethod().getName())) {
+                    return invocation.proceed();
+                }
+                final var began = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    LOCK_WAITS.recordValue(System.nanoTime() - began);
+                }
+            };
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                    if (bean instanceof BookRepository && bean instanceof Advised advised) {
+                        advised.addAdvice(0, timer);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.library.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.MyLibraryApplication;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanRequest;
+import com.library.rest.dto.UserDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the platform-thread and virtual-thread execution modes under a checkout rush: many clients loan and
+ * return a handful of hot books in locking mode, so requests queue on {@code findByIdForUpdate}, while a probe
+ * measures how long a plain {@code getBookById} takes meanwhile.
+ * <p>
+ * Excluded from the regular build; run with {@code mvn test -Pbenchmark}. Point {@code spring.datasource.*} at
+ * PostgreSQL for representative lock behaviour. Tunables: {@code benchmark.clients}, {@code benchmark.duration}
+ * (ISO-8601), {@code benchmark.hot-books} and {@code benchmark.tomcat-threads}.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+    private static final int HOT_BOOKS = Integer.getInteger("benchmark.hot-books", 10);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 50);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+
+        final var platform = run(false);
+        final var virtual = run(true);
+
+        System.out.printf("%n%-10s %12s %12s %10s %10s %10s %10s%n",
+                "mode", "checkouts/s", "conflicts/s", "probe p50", "probe p99", "probe max", "errors");
+        for (final var result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.1f %12.1f %8.1fms %8.1fms %8.1fms %10d%n", result.mode(),
+                    result.checkoutsPerSecond(), result.conflictsPerSecond(), result.probeP50(), result.probeP99(),
+                    result.probeMax(), result.errors());
+        }
+
+        assertThat(platform.probes()).isPositive();
+        assertThat(virtual.probes()).isPositive();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+
+        final var profiles = virtualThreads ? new String[]{"virtual-threads"} : new String[0];
+        try (var context = new SpringApplicationBuilder(MyLibraryApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "management.server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "library.loans.checkout-mode=locking",
+                        "logging.level.root=WARN",
+                        "logging.level.com.library.exception.GlobalExceptionHandler=OFF")
+                .run()) {
+
+            final var baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            final var userId = post(baseUri.resolve("/library/users"),
+                    new UserDto(null, "Bench", "Mark", "bench-" + UUID.randomUUID() + "@example.com", null), UserDto.class).id();
+            final var bookIds = new ArrayList<Long>();
+            for (var i = 0; i < HOT_BOOKS; i++) {
+                bookIds.add(post(baseUri.resolve("/library/books"),
+                        new BookDto(null, "Hot " + i, "Bench", UUID.randomUUID().toString(), false, null), BookDto.class).id());
+            }
+
+            final var checkouts = new LongAdder();
+            final var conflicts = new LongAdder();
+            final var errors = new LongAdder();
+            final var probeNanos = new ConcurrentLinkedQueue<Long>();
+            final var deadline = System.nanoTime() + DURATION.toNanos();
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (var i = 0; i < CLIENTS; i++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            final var bookId = bookIds.get(ThreadLocalRandom.current().nextInt(bookIds.size()));
+                            try {
+                                final var response = send(baseUri.resolve("/library/loans"), new LoanRequest(bookId, userId, 7));
+                                if (response.statusCode() == 200) {
+                                    checkouts.increment();
+                                    final var loan = objectMapper.readValue(response.body(), LoanDto.class);
+                                    send(baseUri.resolve("/library/loans/" + loan.id() + "/refund"), null);
+                                } else if (response.statusCode() < 500) {
+                                    conflicts.increment();
+                                } else {
+                                    errors.increment();
+                                }
+                            } catch (Exception e) {
+                                errors.increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                executor.submit(() -> {
+                    final var probe = HttpRequest.newBuilder(baseUri.resolve("/library/books/" + bookIds.getFirst())).GET().build();
+                    while (System.nanoTime() < deadline) {
+                        final var start = System.nanoTime();
+                        httpClient.send(probe, HttpResponse.BodyHandlers.discarding());
+                        probeNanos.add(System.nanoTime() - start);
+                        Thread.sleep(10);
+                    }
+                    return null;
+                });
+            }
+
+            final var seconds = DURATION.toMillis() / 1000d;
+            final var latencies = probeNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Result(virtualThreads ? "virtual" : "platform", checkouts.sum() / seconds, conflicts.sum() / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0),
+                    latencies.length, errors.sum());
+        }
+    }
+
+    private <T> T post(URI uri, Object body, Class<T> type) throws Exception {
+
+        final var response = send(uri, body);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    private HttpResponse<String> send(URI uri, Object body) throws Exception {
+
+        final var request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(1))
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        final var index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000d;
+    }
+
+    private record Result(String mode, double checkoutsPerSecond, double conflictsPerSecond, double probeP50,
+                          double probeP99, double probeMax, int probes, long errors) {
+    }
+}
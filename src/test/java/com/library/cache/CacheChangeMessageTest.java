@@ -0,0 +1,66 @@
+package com.library.cache;
+
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
+import com.library.rest.dto.BookDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CacheChangeMessageTest {
+
+    @Test
+    void burst_is_coalesced_and_round_trips() {
+
+        final var added = BookChangedEvent.added(new BookDto(3L, "Dune", "Frank Herbert", "978-0-441-17271", false, 0L));
+        final var payload = CacheChangeMessage.encode("node-a", List.of(
+                BookChangedEvent.loaned(1L), BookChangedEvent.loaned(1L), BookChangedEvent.returned(1L),
+                BookChangedEvent.removed(2L), added));
+
+        assertThat(payload).isEqualTo("node-a;L1,R1,D2,A3");
+        final var message = CacheChangeMessage.decode(payload);
+        assertThat(message.origin()).isEqualTo("node-a");
+        assertThat(message.resync()).isFalse();
+        assertThat(message.changes()).containsExactly(BookChangedEvent.loaned(1L), BookChangedEvent.returned(1L),
+                BookChangedEvent.removed(2L), new BookChangedEvent(3L, null, BookChangedEvent.Type.ADDED));
+    }
+
+    @Test
+    void loan_changes_round_trip_with_their_due_date() {
+
+        final var due = ZonedDateTime.now().withNano(0);
+        final var payload = CacheChangeMessage.encode("node-a", List.of(
+                LoanChangedEvent.opened(31L, due), BookChangedEvent.loaned(1L), LoanChangedEvent.closed(30L)));
+
+        assertThat(payload).isEqualTo("node-a;O31@" + due.toInstant().toEpochMilli() + ",L1,C30");
+        final var message = CacheChangeMessage.decode(payload);
+        assertThat(message.changes()).containsExactly(BookChangedEvent.loaned(1L));
+        assertThat(message.loanChanges()).extracting(LoanChangedEvent::loanId, LoanChangedEvent::type)
+                .containsExactly(tuple(31L, LoanChangedEvent.Type.OPENED), tuple(30L, LoanChangedEvent.Type.CLOSED));
+        assertThat(message.loanChanges().getFirst().dueDate()).isEqualTo(due);
+    }
+
+    @Test
+    void when_burst_exceeds_the_payload_limit_then_encode_a_resync() {
+
+        final var changes = LongStream.range(1_000_000, 1_001_000).mapToObj(BookChangedEvent::loaned).toList();
+
+        final var payload = CacheChangeMessage.encode("node-a", changes);
+
+        assertThat(payload).isEqualTo(CacheChangeMessage.resync("node-a"));
+        assertThat(CacheChangeMessage.decode(payload)).isEqualTo(new CacheChangeMessage("node-a", List.of(), List.of(), true));
+    }
+
+    @Test
+    void when_payload_is_malformed_then_decode_fails() {
+
+        assertThatThrownBy(() -> CacheChangeMessage.decode("node-a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheChangeMessage.decode("node-a;X1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.library.cache;
+
+import com.library.event.BookChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogGenerationTest {
+
+    private final CatalogGeneration catalogGeneration = new CatalogGeneration();
+
+    @Test
+    void changesSince_returns_changes_in_commit_order() {
+
+        final var since = catalogGeneration.current();
+        catalogGeneration.advance(BookChangedEvent.loaned(1L));
+        catalogGeneration.advance(BookChangedEvent.returned(2L));
+
+        assertThat(catalogGeneration.current()).isEqualTo(since + 2);
+        assertThat(catalogGeneration.changesSince(since))
+                .hasValueSatisfying(changes -> assertThat(changes)
+                        .containsExactly(BookChangedEvent.loaned(1L), BookChangedEvent.returned(2L)));
+        assertThat(catalogGeneration.changesSince(catalogGeneration.current())).hasValueSatisfying(changes -> assertThat(changes).isEmpty());
+    }
+
+    @Test
+    void when_log_wrapped_then_changesSince_is_empty() {
+
+        final var since = catalogGeneration.current();
+        for (var i = 0; i <= CatalogGeneration.LOG_CAPACITY; i++) {
+            catalogGeneration.advance(BookChangedEvent.loaned((long) i));
+        }
+
+        assertThat(catalogGeneration.changesSince(since)).isEmpty();
+        assertThat(catalogGeneration.changesSince(since + 1)).isPresent();
+    }
+
+    @Test
+    void when_invalidateAll_then_older_generations_are_unknown() {
+
+        final var since = catalogGeneration.current();
+        catalogGeneration.advance(BookChangedEvent.loaned(1L));
+        catalogGeneration.invalidateAll();
+
+        assertThat(catalogGeneration.changesSince(since)).isEmpty();
+        assertThat(catalogGeneration.changesSince(catalogGeneration.current())).isPresent();
+    }
+}
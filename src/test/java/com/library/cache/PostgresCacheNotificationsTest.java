@@ -0,0 +1,208 @@
+package com.library.cache;
+
+import com.library.availability.BookAvailability;
+import com.library.config.CacheConfig;
+import com.library.config.CacheNotificationProperties;
+import com.library.config.LibraryCacheProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.CatalogResyncEvent;
+import com.library.mapper.BookMapper;
+import com.library.repository.BookRepository;
+import com.library.repository.entity.BookEntity;
+import com.library.repository.projection.BookLoanState;
+import com.library.rest.dto.BookDto;
+import com.library.search.BookSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.library.constants.CacheNames.BOOKS;
+import static com.library.constants.CacheNames.BOOK_IDS_BY_ISBN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostgresCacheNotificationsTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(new LibraryCacheProperties(true, null, null));
+    private final CatalogGeneration catalogGeneration = new CatalogGeneration();
+    private final CatalogCacheInvalidator invalidator = new CatalogCacheInvalidator(cacheManager, catalogGeneration);
+    private final BookAvailability availability = new BookAvailability();
+    private final BookSearchIndex searchIndex = new BookSearchIndex();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookMapper bookMapper = mock(BookMapper.class);
+    private final DataSourceProperties dataSourceProperties = new DataSourceProperties();
+
+    private final PostgresCacheNotifications notifications = new PostgresCacheNotifications(
+            new CacheNotificationProperties(true, null, null, null, null, null), dataSourceProperties, null, this::dispatch,
+            bookRepository, bookMapper, TransactionOperations.withoutTransaction());
+
+    @Test
+    void changes_of_other_instances_evict_books_and_advance_the_generation() {
+
+        cacheManager.getCache(BOOKS).put(1L, book(1L, "978-0-441-17271"));
+        cacheManager.getCache(BOOKS).put(2L, book(2L, "978-0-441-17269"));
+        cacheManager.getCache(BOOK_IDS_BY_ISBN).put("978-0-441-17269", 2L);
+        final var since = catalogGeneration.current();
+
+        notifications.apply("other-node;L1,D2");
+
+        assertThat(cacheManager.getCache(BOOKS).get(1L)).isNull();
+        assertThat(cacheManager.getCache(BOOKS).get(2L)).isNull();
+        assertThat(cacheManager.getCache(BOOK_IDS_BY_ISBN).get("978-0-441-17269")).isNull();
+        assertThat(catalogGeneration.changesSince(since))
+                .hasValue(List.of(BookChangedEvent.loaned(1L).toRemote(), BookChangedEvent.removed(2L).toRemote()));
+    }
+
+    @Test
+    void changes_of_other_instances_reach_availability_and_search() {
+
+        availability.load(List.of(new BookLoanState(1L, false), new BookLoanState(2L, false)));
+        searchIndex.load(List.of(book(1L, "978-0-441-17271"), book(2L, "978-0-441-17269")));
+        final var entity = new BookEntity();
+        when(bookRepository.findAllById(anyList())).thenReturn(List.of(entity));
+        when(bookMapper.toDto(entity)).thenReturn(new BookDto(3L, "Emma", "Jane Austen", "978-0-14-143958", true, 0L));
+
+        notifications.apply("other-node;L1,D2,A3");
+
+        assertThat(availability.of(1L)).isEqualTo(BookAvailability.Availability.LOANED);
+        assertThat(availability.of(2L)).isEqualTo(BookAvailability.Availability.UNKNOWN);
+        assertThat(availability.of(3L)).isEqualTo(BookAvailability.Availability.LOANED);
+        assertThat(searchIndex.get(1L).isLoaned()).isTrue();
+        assertThat(searchIndex.get(2L)).isNull();
+        assertThat(searchIndex.search("emma", 10)).extracting(BookDto::id).containsExactly(3L);
+        assertThat(cacheManager.getCache(BOOK_IDS_BY_ISBN).get("978-0-14-143958").get()).isEqualTo(3L);
+    }
+
+    @Test
+    void resync_drops_every_cached_book_and_page() {
+
+        cacheManager.getCache(BOOKS).put(1L, book(1L, "978-0-441-17271"));
+        final var since = catalogGeneration.current();
+
+        notifications.apply("other-node;*");
+
+        assertThat(cacheManager.getCache(BOOKS).get(1L)).isNull();
+        assertThat(catalogGeneration.changesSince(since)).isEmpty();
+    }
+
+    @Test
+    void refuses_to_start_without_postgresql() {
+
+        dataSourceProperties.setUrl("jdbc:h2:mem:library");
+
+        assertThatIllegalStateException().isThrownBy(notifications::start).withMessageContaining("jdbc:h2:mem:library");
+        assertThat(notifications.isRunning()).isFalse();
+    }
+
+    @Test
+    void changes_that_cannot_be_sent_collapse_into_a_resync() throws InterruptedException {
+
+        final var payloads = new LinkedBlockingQueue<String>();
+        final var attempts = new AtomicInteger();
+        final var jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            payloads.add(invocation.getArgument(3));
+            if (attempts.incrementAndGet() <= 3) {
+                throw new CannotGetJdbcConnectionException("database is down");
+            }
+            return true;
+        }).when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(), any());
+        final var sender = startedNotifications(jdbcTemplate, 10);
+        try {
+            sender.onBookChanged(BookChangedEvent.loaned(1L));
+
+            assertThat(List.of(poll(payloads), poll(payloads), poll(payloads), poll(payloads)))
+                    .map(payload -> CacheChangeMessage.decode(payload).resync())
+                    .containsExactly(false, false, false, true);
+        } finally {
+            sender.stop();
+        }
+    }
+
+    @Test
+    void an_overflowing_outbox_is_replaced_by_a_resync() throws InterruptedException {
+
+        final var payloads = new LinkedBlockingQueue<String>();
+        final var sending = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            payloads.add(invocation.getArgument(3));
+            return true;
+        }).when(jdbcTemplate).query(anyString(), any(ResultSetExtractor.class), any(), any());
+        final var sender = startedNotifications(jdbcTemplate, 2);
+        try {
+            sender.onBookChanged(BookChangedEvent.loaned(1L));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+            sender.onBookChanged(BookChangedEvent.returned(1L));
+            sender.onBookChanged(BookChangedEvent.loaned(2L));
+            sender.onBookChanged(BookChangedEvent.loaned(3L));
+            release.countDown();
+
+            assertThat(CacheChangeMessage.decode(poll(payloads)).changes()).containsExactly(BookChangedEvent.loaned(1L));
+            assertThat(CacheChangeMessage.decode(poll(payloads)).resync()).isTrue();
+            assertThat(payloads.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            sender.stop();
+        }
+    }
+
+    /**
+     * The listener of the returned instance keeps failing to connect to the unreachable database, which does not
+     * concern the publisher.
+     */
+    private PostgresCacheNotifications startedNotifications(JdbcTemplate jdbcTemplate, int outboxCapacity) {
+
+        final var properties = new DataSourceProperties();
+        properties.setUrl("jdbc:postgresql://localhost:1/library");
+        final var sender = new PostgresCacheNotifications(
+                new CacheNotificationProperties(true, null, Duration.ofMillis(1), Duration.ofMillis(1), outboxCapacity, 3),
+                properties, jdbcTemplate, this::dispatch, bookRepository, bookMapper,
+                TransactionOperations.withoutTransaction());
+        sender.start();
+        return sender;
+    }
+
+    private static String poll(BlockingQueue<String> payloads) throws InterruptedException {
+
+        final var payload = payloads.poll(5, TimeUnit.SECONDS);
+        assertThat(payload).isNotNull();
+        return payload;
+    }
+
+    private void dispatch(Object event) {
+
+        if (event instanceof BookChangedEvent change) {
+            invalidator.onBookChanged(change);
+            availability.apply(change);
+            searchIndex.apply(change);
+        } else if (event instanceof CatalogResyncEvent) {
+            invalidator.invalidateAll();
+        }
+    }
+
+    private static BookDto book(Long id, String isbn) {
+
+        return new BookDto(id, "Dune", "Frank Herbert", isbn, false, 0L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static com.library.constants.CacheNames.ALL_BOOKS;
+import static com.library.constants.CacheNames.BOOKS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+
+    @Test
+    void cacheManager_applies_per_cache_specs() {
+
+        final var properties = new LibraryCacheProperties(false, null, Map.of(
+                BOOKS, new LibraryCacheProperties.CacheSpec(100L, Duration.ofMinutes(30), Duration.ofMinutes(10)),
+                ALL_BOOKS, new LibraryCacheProperties.CacheSpec(5L, Duration.ofMinutes(5), null)));
+
+        final var cacheManager = cacheConfig.cacheManager(properties);
+
+        final var books = nativeCache(cacheManager.getCache(BOOKS));
+        assertThat(books.policy().eviction()).hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(100L));
+        assertThat(books.policy().expireAfterWrite()).hasValueSatisfying(expiration -> assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofMinutes(30)));
+        assertThat(books.policy().expireAfterAccess()).hasValueSatisfying(expiration -> assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofMinutes(10)));
+        assertThat(books.policy().isRecordingStats()).isTrue();
+
+        final var allBooks = nativeCache(cacheManager.getCache(ALL_BOOKS));
+        assertThat(allBooks.policy().eviction()).hasValueSatisfying(eviction -> assertThat(eviction.getMaximum()).isEqualTo(5L));
+        assertThat(allBooks.policy().expireAfterAccess()).isEmpty();
+    }
+
+    @Test
+    void cacheManager_records_hits_and_misses() {
+
+        final var cacheManager = cacheConfig.cacheManager(new LibraryCacheProperties(false, null, null));
+        final var cache = cacheManager.getCache(BOOKS);
+
+        cache.get(1L, () -> "book");
+        cache.get(1L, () -> "book");
+
+        final var stats = nativeCache(cache).stats();
+        assertThat(stats.hitCount()).isEqualTo(1L);
+        assertThat(stats.missCount()).isEqualTo(1L);
+        assertThat(stats.loadSuccessCount()).isEqualTo(1L);
+    }
+
+    private static Cache<Object, Object> nativeCache(org.springframework.cache.Cache cache) {
+
+        return ((CaffeineCache) cache).getNativeCache();
+    }
+}
@@ -0,0 +1,67 @@
+package com.library.datasource;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+
+/**
+ * Two in-memory databases with the same schema stand in for the primary and a replica. They are not replicated, so
+ * a row only in the replica shows that a call read the replica and a row only in the primary that it used the
+ * primary. Both are emptied before every test.
+ */
+abstract class AbstractReadReplicaTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    protected static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    protected JdbcTemplate primary;
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.jpa.database", () -> "h2");
+        registry.add("spring.sql.init.mode", () -> "never");
+        registry.add("library.datasource.read-replicas.enabled", () -> "true");
+        registry.add("library.datasource.read-replicas.nodes.replica-1.url", () -> REPLICA_URL);
+    }
+
+    @BeforeAll
+    static void createReplicaSchema() throws Exception {
+
+        final var liquibase = new SpringLiquibase();
+        liquibase.setDataSource(REPLICA.getDataSource());
+        liquibase.setChangeLog("classpath:db/changelog/changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @BeforeEach
+    void clearDatabases() {
+
+        primary = new JdbcTemplate(primaryDataSource);
+        for (final var database : new JdbcTemplate[]{primary, REPLICA}) {
+            database.update("delete from loans");
+            database.update("delete from books");
+            database.update("delete from users");
+        }
+    }
+}
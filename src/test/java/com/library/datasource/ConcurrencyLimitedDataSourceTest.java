@@ -0,0 +1,76 @@
+package com.library.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void permits_are_held_until_the_connection_is_closed() throws Exception {
+
+        when(target.getConnection()).thenReturn(connection);
+
+        final var first = dataSource.getConnection();
+        final var second = dataSource.getConnection();
+        assertThat(dataSource.getActive()).isEqualTo(2);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        assertThat(dataSource.getActive()).isEqualTo(1);
+        verify(connection, times(1)).close();
+
+        dataSource.getConnection().close();
+        second.close();
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    void permit_is_returned_when_the_pool_fails() throws Exception {
+
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    void other_calls_reach_the_connection() throws Exception {
+
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+
+        try (var limited = dataSource.getConnection()) {
+            assertThat(limited.getAutoCommit()).isTrue();
+            assertThat(limited).isEqualTo(limited).isNotEqualTo(connection);
+        }
+    }
+}
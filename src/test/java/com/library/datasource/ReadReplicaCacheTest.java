@@ -0,0 +1,55 @@
+package com.library.datasource;
+
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.TotalMode;
+import com.library.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica setup of {@link AbstractReadReplicaTest} with the book cache enabled: the replica holds an outdated
+ * title, as a lagging replica would right after a write, and nothing of it may end up in the cache.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "library.cache.enabled=true")
+class ReadReplicaCacheTest extends AbstractReadReplicaTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        primary.update("insert into books (id, title, author, isbn, is_loaned) values (1001, 'Dune', 'Frank Herbert', '978-0-441-17271', false)");
+        REPLICA.update("insert into books (id, title, author, isbn, is_loaned) values (1001, 'Dune (stale)', 'Frank Herbert', '978-0-441-17271', false)");
+    }
+
+    @Test
+    void cache_misses_load_from_the_primary() {
+
+        assertThat(bookService.getBookById(1001L).title()).isEqualTo("Dune");
+        assertThat(bookService.getBookByIsbn("978-0-441-17271").title()).isEqualTo("Dune");
+        assertThat(bookService.getAllBooks(0, 10, TotalMode.EXACT).results()).extracting(BookDto::title)
+                .containsExactly("Dune");
+    }
+
+    @Test
+    void cache_hits_serve_what_the_primary_returned() {
+
+        bookService.getBookById(1001L);
+        bookService.getAllBooks(0, 10, TotalMode.EXACT);
+
+        assertThat(bookService.getBookById(1001L).title()).isEqualTo("Dune");
+        assertThat(bookService.getAllBooks(0, 10, TotalMode.EXACT).results()).extracting(BookDto::title)
+                .containsExactly("Dune");
+    }
+}
@@ -0,0 +1,65 @@
+package com.library.datasource;
+
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.TotalMode;
+import com.library.rest.dto.UserDto;
+import com.library.service.BookService;
+import com.library.service.LoanService;
+import com.library.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only service calls go to the replica, everything else to the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "library.cache.enabled=false")
+class ReadReplicaRoutingTest extends AbstractReadReplicaTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Test
+    void read_only_calls_read_the_replica() {
+
+        primary.update("insert into books (id, title, author, isbn, is_loaned) values (1001, 'Dune', 'Frank Herbert', '978-0-441-17271', false)");
+        REPLICA.update("insert into books (id, title, author, isbn, is_loaned) values (1001, 'Dune (replica)', 'Frank Herbert', '978-0-441-17271', false)");
+        REPLICA.update("insert into users (id, first_name, last_name, email) values (2001, 'Paul', 'Atreides', 'paul@arrakis.org')");
+
+        assertThat(bookService.getBookById(1001L).title()).isEqualTo("Dune (replica)");
+        assertThat(bookService.getAllBooks(0, 10, TotalMode.EXACT).results()).extracting(BookDto::title)
+                .containsExactly("Dune (replica)");
+        assertThat(userService.getAllUsers(0, 10, TotalMode.EXACT).results()).extracting(UserDto::email)
+                .containsExactly("paul@arrakis.org");
+    }
+
+    @Test
+    void writes_go_to_the_primary() {
+
+        bookService.addBook(new BookDto(null, "Children of Dune", "Frank Herbert", "978-0-441-10402", false, null));
+
+        assertThat(primary.queryForObject("select count(*) from books", Integer.class)).isOne();
+        assertThat(REPLICA.queryForObject("select count(*) from books", Integer.class)).isZero();
+    }
+
+    @Test
+    void loans_run_on_the_primary() {
+
+        primary.update("insert into books (id, title, author, isbn, is_loaned) values (1002, 'Dune Messiah', 'Frank Herbert', '978-0-441-17269', false)");
+        primary.update("insert into users (id, first_name, last_name, email) values (2002, 'Chani', 'Kynes', 'chani@arrakis.org')");
+
+        final var loan = loanService.loanBook(1002L, 2002L, 14);
+
+        assertThat(loan.id()).isNotNull();
+        assertThat(primary.queryForObject("select is_loaned from books where id = 1002", Boolean.class)).isTrue();
+        assertThat(REPLICA.queryForObject("select count(*) from loans", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,113 @@
+package com.library.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource first;
+
+    @Mock
+    private DataSource second;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+
+        final var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("first", first);
+        replicas.put("second", second);
+        dataSource = new ReplicaRoutingDataSource(replicas, primary, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void healthy_replicas_take_turns() throws Exception {
+
+        healthy(first, firstConnection);
+        healthy(second, secondConnection);
+        dataSource.checkHealth();
+
+        assertThat(dataSource.getReplicasUp()).isEqualTo(2);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(dataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void replica_failing_its_health_check_is_skipped_until_it_recovers() throws Exception {
+
+        healthy(first, firstConnection);
+        when(second.getConnection()).thenThrow(new SQLException("connection refused"));
+        dataSource.checkHealth();
+
+        assertThat(dataSource.getReplicasUp()).isEqualTo(1);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+        assertThat(dataSource.getConnection()).isSameAs(firstConnection);
+
+        healthy(second, secondConnection);
+        dataSource.checkHealth();
+
+        assertThat(dataSource.getReplicasUp()).isEqualTo(2);
+        assertThat(dataSource.getConnection()).isSameAs(secondConnection);
+    }
+
+    @Test
+    void replica_refusing_a_connection_is_taken_down_and_the_next_one_serves() throws Exception {
+
+        healthy(first, firstConnection);
+        healthy(second, secondConnection);
+        dataSource.checkHealth();
+        when(first.getConnection()).thenThrow(new SQLException("too many connections"));
+
+        assertThat(dataSource.getConnection()).isSameAs(secondConnection);
+        assertThat(dataSource.getReplicasUp()).isEqualTo(1);
+    }
+
+    @Test
+    void reads_fall_back_to_the_primary_when_no_replica_is_up() throws Exception {
+
+        when(first.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(second.getConnection()).thenReturn(secondConnection);
+        when(secondConnection.isValid(anyInt())).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        dataSource.checkHealth();
+
+        assertThat(dataSource.getReplicasUp()).isZero();
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    private static void healthy(DataSource replica, Connection connection) throws SQLException {
+
+        reset(replica);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+    }
+}
@@ -0,0 +1,71 @@
+package com.library.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRateLimiterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final LogRateLimiter limiter = new LogRateLimiter();
+
+    @BeforeEach
+    void setUp() {
+
+        loggerContext.getLogger("com.library").setLevel(Level.INFO);
+        limiter.setContext(loggerContext);
+        limiter.setEventsPerSecond(1);
+        limiter.setBurst(3);
+        limiter.setSampling("com.library.sampled=0, com.library.kept=1");
+        limiter.start();
+    }
+
+    @Test
+    void each_event_type_is_limited_on_its_own() {
+
+        final var logger = loggerContext.getLogger("com.library.service");
+
+        assertThat(replies(logger, "Book with id {} has been loaned", 5))
+                .containsExactly(FilterReply.NEUTRAL, FilterReply.NEUTRAL, FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY);
+        assertThat(replies(logger, "Book with id {} has been refunded", 1)).containsExactly(FilterReply.NEUTRAL);
+        assertThat(limiter.getRateLimited()).isEqualTo(2);
+    }
+
+    @Test
+    void sampling_applies_below_warn_only() {
+
+        final var sampled = loggerContext.getLogger("com.library.sampled.Service");
+        final var kept = loggerContext.getLogger("com.library.kept.Service");
+
+        assertThat(limiter.decide(null, sampled, Level.INFO, "loaned", null, null)).isEqualTo(FilterReply.DENY);
+        assertThat(limiter.decide(null, sampled, Level.WARN, "failed", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(limiter.decide(null, kept, Level.INFO, "loaned", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(limiter.getSampledOut()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled_levels_and_level_checks_are_left_alone() {
+
+        final var logger = loggerContext.getLogger("com.library.service");
+
+        assertThat(IntStream.range(0, 10).mapToObj(i -> limiter.decide(null, logger, Level.DEBUG, "details", null, null)))
+                .containsOnly(FilterReply.NEUTRAL);
+        assertThat(limiter.decide(null, logger, Level.INFO, null, null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(limiter.getRateLimited()).isZero();
+    }
+
+    private List<FilterReply> replies(Logger logger, String format, int count) {
+
+        return IntStream.range(0, count)
+                .mapToObj(i -> limiter.decide(null, logger, Level.INFO, format, new Object[]{i}, null))
+                .toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueriesPerRequestFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueriesPerRequestFilter filter = new QueriesPerRequestFilter(meterRegistry);
+
+    @Test
+    void records_statements_executed_during_the_request() throws Exception {
+
+        final var request = new MockHttpServletRequest("GET", "/library/books/1");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/library/books/{bookId}");
+            QueryCounter.count();
+            QueryCounter.count();
+        });
+
+        final var summary = meterRegistry.get(QueriesPerRequestFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/library/books/{bookId}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void statements_outside_a_request_are_not_counted() throws Exception {
+
+        QueryCounter.count();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/library/books"), new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertThat(meterRegistry.get(QueriesPerRequestFilter.METRIC).summary().totalAmount()).isZero();
+    }
+
+    @Test
+    void async_requests_are_not_recorded() throws Exception {
+
+        final var request = new MockHttpServletRequest("GET", "/library/books/export");
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            QueryCounter.count();
+            req.startAsync();
+        });
+
+        assertThat(meterRegistry.find(QueriesPerRequestFilter.METRIC).summary()).isNull();
+    }
+}
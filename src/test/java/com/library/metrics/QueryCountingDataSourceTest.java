@@ -0,0 +1,46 @@
+package com.library.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCountingDataSourceTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new QueryCountingDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:query-counting;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    @AfterEach
+    void tearDown() {
+
+        QueryCounter.stop();
+        jdbcTemplate.execute("drop table if exists counted");
+    }
+
+    @Test
+    void counts_jdbc_template_statements_and_batches_once() {
+
+        jdbcTemplate.execute("create table counted (id bigint)");
+
+        QueryCounter.start();
+        jdbcTemplate.batchUpdate("insert into counted (id) values (?)", List.of(new Object[]{1L}, new Object[]{2L}));
+        jdbcTemplate.update("insert into counted (id) values (?)", 3L);
+        jdbcTemplate.queryForList("select id from counted", Long.class);
+
+        assertThat(QueryCounter.stop()).isEqualTo(3);
+    }
+
+    @Test
+    void statements_without_an_open_count_are_not_counted() {
+
+        jdbcTemplate.execute("create table counted (id bigint)");
+        jdbcTemplate.queryForList("select id from counted", Long.class);
+
+        QueryCounter.start();
+        assertThat(QueryCounter.stop()).isZero();
+    }
+}
@@ -0,0 +1,133 @@
+package com.library.overdue;
+
+import com.library.config.OverdueProperties;
+import com.library.event.LoanChangedEvent;
+import com.library.event.LoanOverdueEvent;
+import com.library.repository.LoanRepository;
+import com.library.repository.OverdueWatermarkRepository;
+import com.library.repository.entity.OverdueWatermarkEntity;
+import com.library.repository.projection.OpenLoan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueTrackerTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private OverdueWatermarkRepository watermarkRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OverdueTracker overdueTracker;
+
+    @BeforeEach
+    void setUp() {
+
+        overdueTracker = new OverdueTracker(loanRepository, watermarkRepository, eventPublisher,
+                TransactionOperations.withoutTransaction(), new OverdueProperties(Duration.ofMinutes(1), null));
+    }
+
+    @Test
+    void load_reports_loans_that_fell_due_since_the_watermark_and_schedules_the_rest() {
+
+        final var watermark = ZonedDateTime.now().minusHours(2);
+        final var missed = ZonedDateTime.now().minusHours(1);
+        final var upcoming = ZonedDateTime.now().plusHours(1);
+        when(watermarkRepository.findById(OverdueWatermarkEntity.ID))
+                .thenReturn(Optional.of(new OverdueWatermarkEntity(OverdueWatermarkEntity.ID, watermark, null, null)));
+        when(loanRepository.streamOpenDueAfter(watermark))
+                .thenReturn(Stream.of(new OpenLoan(1L, missed), new OpenLoan(2L, upcoming)));
+
+        overdueTracker.load();
+
+        verify(eventPublisher).publishEvent(new LoanOverdueEvent(1L, missed));
+        verifyNoMoreInteractions(eventPublisher);
+        assertThat(overdueTracker.size()).isEqualTo(1);
+
+        overdueTracker.advance(upcoming.toInstant().plusSeconds(60));
+
+        verify(eventPublisher).publishEvent(new LoanOverdueEvent(2L, upcoming));
+        verify(watermarkRepository).advanceWatermark(eq(OverdueWatermarkEntity.ID), anyString(), any(ZonedDateTime.class));
+    }
+
+    @Test
+    void loans_closed_while_loading_are_not_scheduled() {
+
+        final var due = ZonedDateTime.now().plusDays(1);
+        when(watermarkRepository.findById(OverdueWatermarkEntity.ID)).thenReturn(Optional.empty());
+        when(loanRepository.streamOpenDueAfter(Instant.EPOCH.atZone(ZoneId.systemDefault()))).thenAnswer(invocation -> {
+            overdueTracker.onLoanChanged(LoanChangedEvent.closed(1L));
+            return Stream.of(new OpenLoan(1L, due));
+        });
+
+        overdueTracker.load();
+
+        assertThat(overdueTracker.size()).isZero();
+    }
+
+    @Test
+    void returned_loans_are_never_reported() {
+
+        final var due = ZonedDateTime.now().plusMinutes(5);
+        when(watermarkRepository.findById(OverdueWatermarkEntity.ID)).thenReturn(Optional.empty());
+        when(loanRepository.streamOpenDueAfter(any())).thenReturn(Stream.empty());
+        overdueTracker.load();
+
+        overdueTracker.onLoanChanged(LoanChangedEvent.opened(1L, due));
+        overdueTracker.onLoanChanged(LoanChangedEvent.opened(2L, due));
+        overdueTracker.onLoanChanged(LoanChangedEvent.closed(1L));
+        overdueTracker.advance(due.toInstant().plus(Duration.ofMinutes(1)));
+
+        verify(eventPublisher).publishEvent(new LoanOverdueEvent(2L, due));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void instances_without_the_lease_do_not_track() {
+
+        when(watermarkRepository.acquireLease(eq(OverdueWatermarkEntity.ID), anyString(), any(), any())).thenReturn(0);
+
+        overdueTracker.tick();
+        overdueTracker.onLoanChanged(LoanChangedEvent.opened(1L, ZonedDateTime.now().minusMinutes(1)));
+
+        assertThat(overdueTracker.isTracking()).isFalse();
+        verifyNoInteractions(loanRepository, eventPublisher);
+    }
+
+    @Test
+    void losing_the_lease_stops_tracking() {
+
+        when(watermarkRepository.acquireLease(eq(OverdueWatermarkEntity.ID), anyString(), any(), any())).thenReturn(1, 0);
+        when(watermarkRepository.findById(OverdueWatermarkEntity.ID)).thenReturn(Optional.empty());
+        when(loanRepository.streamOpenDueAfter(any())).thenReturn(Stream.of(new OpenLoan(1L, ZonedDateTime.now().plusDays(1))));
+
+        overdueTracker.tick();
+        assertThat(overdueTracker.size()).isOne();
+
+        overdueTracker.tick();
+        assertThat(overdueTracker.isTracking()).isFalse();
+        assertThat(overdueTracker.size()).isZero();
+    }
+}
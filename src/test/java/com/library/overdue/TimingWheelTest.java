@@ -0,0 +1,76 @@
+package com.library.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void entries_expire_exactly_at_their_deadline() {
+
+        final var wheel = new TimingWheel<String>(0);
+        final var expired = new ArrayList<String>();
+        wheel.schedule(1L, 5, "a");
+        wheel.schedule(2L, 64, "b");
+        wheel.schedule(3L, 4_097, "c");
+
+        wheel.advanceTo(4, (id, payload) -> expired.add(payload));
+        assertThat(expired).isEmpty();
+        wheel.advanceTo(5, (id, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly("a");
+        wheel.advanceTo(4_096, (id, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly("a", "b");
+        wheel.advanceTo(4_097, (id, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly("a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelled_and_rescheduled_entries() {
+
+        final var wheel = new TimingWheel<Long>(100);
+        final var expired = new ArrayList<Long>();
+        wheel.schedule(1L, 110, 110L);
+        wheel.schedule(2L, 120, 120L);
+        wheel.schedule(2L, 300, 300L);
+
+        assertThat(wheel.cancel(1L)).isTrue();
+        assertThat(wheel.cancel(1L)).isFalse();
+        assertThat(wheel.schedule(3L, 100, 100L)).isFalse();
+
+        wheel.advanceTo(1_000, (id, payload) -> expired.add(payload));
+        assertThat(expired).containsExactly(300L);
+    }
+
+    @Test
+    void missed_ticks_and_far_deadlines_are_replayed_in_order() {
+
+        final var start = 1_000_000L;
+        final var wheel = new TimingWheel<Long>(start);
+        final var random = new Random(42);
+        final var deadlines = new ArrayList<Long>();
+        for (var id = 0L; id < 2_000; id++) {
+            final var deadline = start + 1 + (long) (random.nextDouble() * 20_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(id, deadline, deadline);
+        }
+
+        final List<Long> expired = new ArrayList<>();
+        var tick = start;
+        while (wheel.size() > 0) {
+            tick += 1 + random.nextInt(5_000);
+            final var now = tick;
+            wheel.advanceTo(now, (id, deadline) -> {
+                assertThat(deadline).isLessThanOrEqualTo(now);
+                expired.add(deadline);
+            });
+        }
+
+        assertThat(expired).isSorted().containsExactlyInAnyOrderElementsOf(deadlines);
+    }
+}
@@ -0,0 +1,57 @@
+package com.library.repository;
+
+import com.library.repository.entity.BookEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookBatchRepositoryImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private BookBatchRepositoryImpl repository;
+
+    @Test
+    void resolvesRowsReportedWithoutCountFromExistingIsbns() {
+
+        final var books = List.of(book("111"), book("222"), book("111"), book("333"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of("333"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenReturn(new int[][]{{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO,
+                        Statement.SUCCESS_NO_INFO}});
+
+        assertThat(repository.insertIgnoringDuplicates(books)).containsExactly(1, 1, 0, 0);
+    }
+
+    @Test
+    void keepsCountsReportedByTheDriver() {
+
+        final var books = List.of(book("111"), book("222"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any())).thenReturn(new int[][]{{0, 1}});
+
+        assertThat(repository.insertIgnoringDuplicates(books)).containsExactly(0, 1);
+    }
+
+    private static BookEntity book(String isbn) {
+
+        return new BookEntity(null, "Title " + isbn, "Author", isbn, false, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.library.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableStatisticsTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:statistics;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    private TableStatistics tableStatistics;
+
+    @BeforeEach
+    void setUp() {
+
+        for (final var table : TableStatistics.Table.values()) {
+            jdbcTemplate.execute("drop table if exists " + table.name().toLowerCase());
+            jdbcTemplate.execute("create table " + table.name().toLowerCase() + " (id bigint primary key)");
+        }
+        jdbcTemplate.update("insert into books (id) values (1), (2), (3)");
+        tableStatistics = new TableStatistics(jdbcTemplate);
+    }
+
+    @Test
+    void counts_are_unknown_until_the_first_refresh_and_never_computed_by_callers() {
+
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).isEqualTo(TableStatistics.UNKNOWN);
+
+        jdbcTemplate.update("insert into books (id) values (4)");
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).isEqualTo(TableStatistics.UNKNOWN);
+
+        tableStatistics.refresh();
+
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).isEqualTo(4);
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.LOANS)).isZero();
+    }
+
+    @Test
+    void a_failing_table_keeps_its_previous_value_and_does_not_stop_the_others() {
+
+        tableStatistics.refresh();
+        jdbcTemplate.execute("drop table books");
+        jdbcTemplate.update("insert into users (id) values (1)");
+
+        tableStatistics.refresh();
+
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).isEqualTo(3);
+        assertThat(tableStatistics.estimatedRowCount(TableStatistics.Table.USERS)).isOne();
+    }
+}
@@ -48,7 +48,8 @@ class BookControllerIT {
                 "Patterns of Enterprise Application Architecture",
                 "Fowler Martin",
                 "B008OHVDFM",
-                false
+                false,
+                0L
         );
 
         final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), BookDto.class);
@@ -74,7 +75,8 @@ class BookControllerIT {
                 "Test Title",
                 "Test Author",
                 "isbn123",
-                false
+                false,
+                null
         );
 
         final var result = mockMvc.perform(post("/library/books")
@@ -2,25 +2,47 @@ package com.library.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.library.event.BookChangedEvent;
 import com.library.exception.BookNotFoundException;
+import com.library.exception.InvalidCursorException;
+import com.library.rest.dto.BookAvailabilityDto;
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.BookImportResult;
+import com.library.rest.dto.CursorResult;
+import com.library.rest.dto.ImportFormat;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import com.library.service.impl.DefaultBookAvailabilityService;
+import com.library.service.impl.DefaultBookImportService;
+import com.library.service.impl.DefaultBookSearchService;
 import com.library.service.impl.DefaultBookService;
+import com.library.service.impl.DefaultExportService;
 import org.instancio.Instancio;
 import org.instancio.TypeToken;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -32,9 +54,24 @@ class BookControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @MockitoBean
     private DefaultBookService bookService;
 
+    @MockitoBean
+    private DefaultBookImportService bookImportService;
+
+    @MockitoBean
+    private DefaultExportService exportService;
+
+    @MockitoBean
+    private DefaultBookSearchService bookSearchService;
+
+    @MockitoBean
+    private DefaultBookAvailabilityService bookAvailabilityService;
+
     @Test
     void getBookById() throws Exception {
 
@@ -62,6 +99,39 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void when_getBookById_with_current_etag_then_return_304() throws Exception {
+
+        final var bookDto = Instancio.create(BookDto.class);
+        when(bookService.getBookById(bookDto.id())).thenReturn(bookDto);
+
+        final var etag = mockMvc.perform(get("/library/books/{bookId}", bookDto.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + bookDto.id() + "-" + bookDto.version() + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/library/books/{bookId}", bookDto.id()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getBookByIsbn() throws Exception {
+
+        final var bookDto = Instancio.create(BookDto.class);
+        when(bookService.getBookByIsbn(bookDto.isbn())).thenReturn(bookDto);
+
+        final var result = mockMvc.perform(get("/library/books/isbn/{isbn}", bookDto.isbn()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), BookDto.class);
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(bookDto);
+    }
+
     @Test
     void addBook() throws Exception {
 
@@ -84,7 +154,7 @@ class BookControllerTest {
     @Test
     void when_addBook_then_return_400() throws Exception {
 
-        final var bookDto = new BookDto(10L, "test", null, null, false);
+        final var bookDto = new BookDto(10L, "test", null, null, false, 0L);
 
         mockMvc.perform(post("/library/books")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,7 +179,7 @@ class BookControllerTest {
         final var pageSize = 10;
         final var paginatedResult = Instancio.create(new TypeToken<PaginatedResult<BookDto>>() {
         });
-        when(bookService.getAllBooks(pageNumber, pageSize)).thenReturn(paginatedResult);
+        when(bookService.getAllBooks(pageNumber, pageSize, TotalMode.EXACT)).thenReturn(paginatedResult);
 
         final var result = mockMvc.perform(get("/library/books")
                         .param("page", String.valueOf(pageNumber))
@@ -123,4 +193,237 @@ class BookControllerTest {
                 .usingRecursiveComparison()
                 .isEqualTo(paginatedResult);
     }
-}
\ No newline at end of file
+
+    @Test
+    void when_getAllBooks_with_etag_then_return_304_until_a_book_changes() throws Exception {
+
+        final var books = Instancio.ofList(BookDto.class).size(3).create();
+        when(bookService.getAllBooks(2, 3, TotalMode.EXACT)).thenReturn(new PaginatedResult<>(books, 9L, 2, 3, true));
+
+        final var etag = mockMvc.perform(get("/library/books").param("page", "2").param("size", "3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/library/books").param("page", "2").param("size", "3").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        final var loaned = books.get(1);
+        final var changed = List.of(books.get(0),
+                new BookDto(loaned.id(), loaned.title(), loaned.author(), loaned.isbn(), true, loaned.version() + 1),
+                books.get(2));
+        when(bookService.getAllBooks(2, 3, TotalMode.EXACT)).thenReturn(new PaginatedResult<>(changed, 9L, 2, 3, true));
+        eventPublisher.publishEvent(BookChangedEvent.loaned(loaned.id()));
+
+        final var refreshed = mockMvc.perform(get("/library/books").param("page", "2").param("size", "3")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(refreshed).isNotEqualTo(etag);
+    }
+
+    @Test
+    void when_getAllBooks_accepting_cbor_then_return_cbor() throws Exception {
+
+        final var paginatedResult = Instancio.create(new TypeToken<PaginatedResult<BookDto>>() {
+        });
+        when(bookService.getAllBooks(3, 5, TotalMode.EXACT)).thenReturn(paginatedResult);
+
+        final var result = mockMvc.perform(get("/library/books")
+                        .param("page", "3")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        final var actual = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), new TypeReference<PaginatedResult<BookDto>>() {
+        });
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(paginatedResult);
+    }
+
+    @Test
+    void getBooksAfter() throws Exception {
+
+        final var cursor = "azE6MTA";
+        final var pageSize = 10;
+        final var cursorResult = Instancio.create(new TypeToken<CursorResult<BookDto>>() {
+        });
+        when(bookService.getBooksAfter(cursor, pageSize)).thenReturn(cursorResult);
+
+        final var result = mockMvc.perform(get("/library/books")
+                        .param("cursor", cursor)
+                        .param("size", String.valueOf(pageSize)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<CursorResult<BookDto>>() {
+        });
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(cursorResult);
+    }
+
+    @Test
+    void when_getBooksAfter_with_invalid_cursor_then_return_400() throws Exception {
+
+        when(bookService.getBooksAfter("invalid", 10)).thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        mockMvc.perform(get("/library/books").param("cursor", "invalid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void when_getBooksAfter_with_size_out_of_range_then_return_400() throws Exception {
+
+        for (final var size : List.of("0", "-1", String.valueOf(CursorResult.MAX_PAGE_SIZE + 1), String.valueOf(Integer.MAX_VALUE))) {
+            mockMvc.perform(get("/library/books").param("cursor", "").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void importBooks() throws Exception {
+
+        final var importResult = Instancio.create(BookImportResult.class);
+        when(bookImportService.importBooks(any(), eq(ImportFormat.CSV), eq(StandardCharsets.UTF_8))).thenReturn(importResult);
+
+        final var result = mockMvc.perform(post("/library/books/import")
+                        .contentType(ImportFormat.TEXT_CSV_VALUE)
+                        .content("isbn,title,author\n111,Dune,Frank Herbert\n"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), BookImportResult.class);
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(importResult);
+    }
+
+    @Test
+    void importBooksDecodesWithRequestCharset() throws Exception {
+
+        when(bookImportService.importBooks(any(), eq(ImportFormat.CSV), eq(StandardCharsets.ISO_8859_1)))
+                .thenReturn(Instancio.create(BookImportResult.class));
+
+        mockMvc.perform(post("/library/books/import")
+                        .contentType(ImportFormat.TEXT_CSV_VALUE + ";charset=ISO-8859-1")
+                        .content("isbn,title,author\n111,Dune,Frank Herbert\n"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void when_importBooks_with_unsupported_format_then_return_415() throws Exception {
+
+        mockMvc.perform(post("/library/books/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<books/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void exportBooks() throws Exception {
+
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1}\n{\"id\":2}".getBytes());
+            return null;
+        }).when(exportService).exportBooks(any());
+
+        final var asyncResult = mockMvc.perform(get("/library/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}"));
+    }
+
+    @Test
+    void searchBooks() throws Exception {
+
+        final var books = Instancio.ofList(BookDto.class).size(3).create();
+        when(bookSearchService.searchBooks("dune", 3)).thenReturn(books);
+
+        final var result = mockMvc.perform(get("/library/books/search")
+                        .param("q", "dune")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<List<BookDto>>() {
+        });
+        assertThat(actual).isEqualTo(books);
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+
+        final var availability = new BookAvailabilityDto(5L, true);
+        when(bookAvailabilityService.getAvailability(5L)).thenReturn(availability);
+
+        final var result = mockMvc.perform(get("/library/books/{bookId}/availability", 5L))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), BookAvailabilityDto.class);
+        assertThat(actual).isEqualTo(availability);
+    }
+
+    @Test
+    void when_getAvailability_then_return_404() throws Exception {
+
+        when(bookAvailabilityService.getAvailability(10L)).thenThrow(new BookNotFoundException("Book with id 10 not found"));
+
+        mockMvc.perform(get("/library/books/{bookId}/availability", 10L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAvailableBooks() throws Exception {
+
+        final var books = Instancio.ofList(BookDto.class).size(2).create();
+        final var cursorResult = new CursorResult<>(books, "next", 2);
+        when(bookAvailabilityService.getAvailableBooks(null, 2)).thenReturn(cursorResult);
+
+        final var result = mockMvc.perform(get("/library/books/available")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<CursorResult<BookDto>>() {
+        });
+        assertThat(actual).isEqualTo(cursorResult);
+    }
+
+    @Test
+    void when_getAvailableBooks_with_size_out_of_range_then_return_400() throws Exception {
+
+        for (final var size : List.of("0", "-1", String.valueOf(Integer.MAX_VALUE))) {
+            mockMvc.perform(get("/library/books/available").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(bookAvailabilityService);
+    }
+
+    @Test
+    void when_total_mode_is_unknown_then_return_400() throws Exception {
+
+        mockMvc.perform(get("/library/books").param("total", "foo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value foo for parameter total"));
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void when_searchBooks_with_limit_out_of_range_then_return_400() throws Exception {
+
+        for (final var limit : List.of("0", String.valueOf(CursorResult.MAX_PAGE_SIZE + 1))) {
+            mockMvc.perform(get("/library/books/search").param("q", "dune").param("limit", limit))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(bookSearchService);
+    }
+}
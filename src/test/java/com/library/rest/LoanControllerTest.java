@@ -3,9 +3,13 @@ package com.library.rest;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.exception.LoanNotFoundException;
+import com.library.rest.dto.BatchLoanRequest;
+import com.library.rest.dto.LoanBatchItem;
 import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanFilter;
 import com.library.rest.dto.LoanRequest;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.service.impl.DefaultLoanService;
 import org.instancio.Instancio;
 import org.instancio.TypeToken;
@@ -17,8 +21,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -43,7 +51,7 @@ class LoanControllerTest {
         final var pageSize = 10;
         final var paginatedResult = Instancio.create(new TypeToken<PaginatedResult<LoanDto>>() {
         });
-        when(loanService.getAllLoans(pageNumber, pageSize)).thenReturn(paginatedResult);
+        when(loanService.getAllLoans(LoanFilter.none(), pageNumber, pageSize, TotalMode.EXACT)).thenReturn(paginatedResult);
 
         final var result = mockMvc.perform(get("/library/loans")
                         .param("page", String.valueOf(pageNumber))
@@ -58,6 +66,14 @@ class LoanControllerTest {
                 .isEqualTo(paginatedResult);
     }
 
+    @Test
+    void when_getLoansAfter_with_size_zero_then_return_400() throws Exception {
+
+        mockMvc.perform(get("/library/loans").param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loanService);
+    }
+
     @Test
     void addLoan() throws Exception {
 
@@ -116,4 +132,64 @@ class LoanControllerTest {
         mockMvc.perform(post("/library/loans/{loanId}/refund", loanId))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllLoans_with_filter() throws Exception {
+
+        final var overdueAt = ZonedDateTime.parse("2025-01-31T00:00:00Z");
+        final var paginatedResult = Instancio.create(new TypeToken<PaginatedResult<LoanDto>>() {
+        });
+        when(loanService.getAllLoans(new LoanFilter(3L, null, null, overdueAt), 1, 10, TotalMode.EXACT))
+                .thenReturn(paginatedResult);
+
+        final var result = mockMvc.perform(get("/library/loans")
+                        .param("userId", "3")
+                        .param("overdueAt", "2025-01-31T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<PaginatedResult<LoanDto>>() {
+        });
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(paginatedResult);
+    }
+
+    @Test
+    void addLoans() throws Exception {
+
+        final var request = new BatchLoanRequest(List.of(1L, 2L), 10L, 14);
+        final var items = List.of(LoanBatchItem.success(1L, Instancio.create(LoanDto.class)),
+                LoanBatchItem.failure(2L, "Book with id 2 is already loaned"));
+        when(loanService.loanBooks(request.bookIds(), request.userId(), request.loanDays())).thenReturn(items);
+
+        final var result = mockMvc.perform(post("/library/loans/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        final var actual = objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<List<LoanBatchItem>>() {
+        });
+        assertThat(actual)
+                .usingRecursiveComparison()
+                .isEqualTo(items);
+    }
+
+    @Test
+    void when_addLoans_without_books_then_return_400() throws Exception {
+
+        mockMvc.perform(post("/library/loans/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchLoanRequest(List.of(), 10L, 14))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void when_total_mode_is_unknown_then_return_400() throws Exception {
+
+        mockMvc.perform(get("/library/loans").param("total", "foo"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(loanService);
+    }
+}
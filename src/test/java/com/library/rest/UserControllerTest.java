@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.library.exception.UserNotFoundException;
 import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
 import com.library.rest.dto.UserDto;
 import com.library.service.impl.DefaultUserService;
 import org.instancio.Instancio;
@@ -12,14 +13,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -52,6 +56,14 @@ class UserControllerTest {
                 .isEqualTo(userDto);
     }
 
+    @Test
+    void when_getUsersAfter_with_size_zero_then_return_400() throws Exception {
+
+        mockMvc.perform(get("/library/users").param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void when_getUserById_then_return_404() throws Exception {
 
@@ -62,11 +74,26 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void when_getUserById_with_current_etag_then_return_304() throws Exception {
+
+        final var userDto = Instancio.create(UserDto.class);
+        when(userService.getUserById(userDto.id())).thenReturn(userDto);
+
+        final var etag = mockMvc.perform(get("/library/users/{userId}", userDto.id()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/library/users/{userId}", userDto.id()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void addUser() throws Exception {
 
-        final var userDto = new UserDto(10L, "firstName", "lastName", "email@email.com");
-        final var userDtoResponse = new UserDto(100L, "firstName2", "lastName2", "email2@email.com");
+        final var userDto = new UserDto(10L, "firstName", "lastName", "email@email.com", 0L);
+        final var userDtoResponse = new UserDto(100L, "firstName2", "lastName2", "email2@email.com", 0L);
         when(userService.addUser(userDto)).thenReturn(userDtoResponse);
 
         final var result = mockMvc.perform(post("/library/users")
@@ -83,7 +110,7 @@ class UserControllerTest {
     @Test
     void when_addUser_then_return_400() throws Exception {
 
-        final var userDto = new UserDto(10L, null, "lastName", "email@email.com");
+        final var userDto = new UserDto(10L, null, "lastName", "email@email.com", null);
 
         mockMvc.perform(post("/library/users")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -108,7 +135,7 @@ class UserControllerTest {
         final var pageSize = 10;
         final var paginatedResult = Instancio.create(new TypeToken<PaginatedResult<UserDto>>() {
         });
-        when(userService.getAllUsers(pageNumber, pageSize)).thenReturn(paginatedResult);
+        when(userService.getAllUsers(pageNumber, pageSize, TotalMode.EXACT)).thenReturn(paginatedResult);
 
         final var result = mockMvc.perform(get("/library/users")
                         .param("page", String.valueOf(pageNumber))
@@ -122,4 +149,12 @@ class UserControllerTest {
                 .usingRecursiveComparison()
                 .isEqualTo(paginatedResult);
     }
-}
\ No newline at end of file
+
+    @Test
+    void when_total_mode_is_unknown_then_return_400() throws Exception {
+
+        mockMvc.perform(get("/library/users").param("page", "0").param("total", "foo"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(userService);
+    }
+}
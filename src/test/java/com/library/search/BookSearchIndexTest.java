@@ -0,0 +1,179 @@
+package com.library.search;
+
+import com.library.event.BookChangedEvent;
+import com.library.rest.dto.BookDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+
+        index = new BookSearchIndex();
+        index.load(List.of(
+                book(1L, "Dune", "Frank Herbert", "978-0-441-17271-9"),
+                book(2L, "Dune Messiah", "Frank Herbert", "978-0-399-12168-0"),
+                book(3L, "Children of Dune", "Frank Herbert", "978-0-399-12011-9"),
+                book(4L, "Les Misérables", "Victor Hugo", "978-0-451-41943-9"),
+                book(5L, "Herbert West", "H. P. Lovecraft", "978-1-000-00000-1")));
+    }
+
+    @Test
+    void searchRanksTitleAboveAuthorAndExactAbovePrefix() {
+
+        assertThat(ids(index.search("herbert", 10))).containsExactly(5L, 1L, 2L, 3L);
+        assertThat(ids(index.search("dun", 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void searchRequiresEveryToken() {
+
+        assertThat(ids(index.search("dune mess", 10))).containsExactly(2L);
+        assertThat(ids(index.search("dune hugo", 10))).isEmpty();
+    }
+
+    @Test
+    void searchFoldsCaseAndDiacritics() {
+
+        assertThat(ids(index.search("MISERABLES", 10))).containsExactly(4L);
+    }
+
+    @Test
+    void searchMatchesIsbnPrefix() {
+
+        assertThat(ids(index.search("978-0-399", 10))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("9780441172719", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void searchHonoursLimit() {
+
+        assertThat(ids(index.search("frank", 2))).containsExactly(1L, 2L);
+        assertThat(index.search("frank", 0)).isEmpty();
+        assertThat(index.search(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void applyUpdatesIndexIncrementally() {
+
+        index.apply(BookChangedEvent.added(book(6L, "Dune Chronicles", "Brian Herbert", "978-2-000-00000-2")));
+        index.apply(BookChangedEvent.removed(1L));
+        index.apply(BookChangedEvent.loaned(2L));
+
+        assertThat(ids(index.search("dune", 10))).containsExactly(2L, 3L, 6L);
+        assertThat(index.get(2L).isLoaned()).isTrue();
+        assertThat(index.search("9780441", 10)).isEmpty();
+    }
+
+    @Test
+    void changesAppliedDuringLoadWinOverLoadedRows() {
+
+        final var loading = new BookSearchIndex();
+        final var stale = List.of(book(1L, "Dune", "Frank Herbert", "1"), book(2L, "Emma", "Jane Austen", "2"));
+
+        loading.load(() -> {
+            loading.apply(BookChangedEvent.removed(1L));
+            loading.apply(BookChangedEvent.loaned(2L));
+            return stale.iterator();
+        });
+
+        assertThat(loading.get(1L)).isNull();
+        assertThat(loading.get(2L).isLoaned()).isTrue();
+    }
+
+    @Test
+    void reloadDropsBooksTheCatalogNoLongerHas() {
+
+        index.load(List.of(book(1L, "Dune", "Frank Herbert", "978-0-441-17271")));
+
+        assertThat(index.size()).isOne();
+        assertThat(index.search("hugo", 10)).isEmpty();
+    }
+
+    @Test
+    void commonTokenReturnsTheTopHitsWithoutScanningEveryPosting() {
+
+        final var large = new BookSearchIndex();
+        large.load(LongStream.rangeClosed(1, BookSearchIndex.MAX_CANDIDATES * 3L)
+                .mapToObj(id -> book(id, "The Book " + id, id % 2 == 0 ? "The Author" : "Someone", "isbn-" + id))
+                .toList());
+
+        assertThat(ids(large.search("the", 3))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(large.search("th", 3))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(large.search("the someone", 2))).containsExactly(1L, 3L);
+        assertThat(ids(large.search("author", 2))).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void earlyTerminationRanksLikeScoringEveryCandidate() {
+
+        final var words = List.of("dune", "dusk", "dust", "war", "ward", "peace", "pea", "the", "then", "of");
+        final var random = new Random(7);
+        final var books = new ArrayList<BookDto>();
+        for (var id = 1L; id <= 2_000; id++) {
+            books.add(book(id, words.get(random.nextInt(words.size())) + " " + words.get(random.nextInt(words.size())),
+                    words.get(random.nextInt(words.size())), "isbn-" + id));
+        }
+        final var randomIndex = new BookSearchIndex();
+        randomIndex.load(books);
+
+        for (final var query : List.of("du", "dune", "the", "war pea", "the of", "d p", "then dust", "pe")) {
+            for (final var limit : List.of(1, 5, 50)) {
+                assertThat(ids(randomIndex.search(query, limit))).as("%s, limit %d", query, limit)
+                        .isEqualTo(bruteForce(books, query, limit));
+            }
+        }
+    }
+
+    private static List<Long> bruteForce(List<BookDto> books, String query, int limit) {
+
+        final var tokens = BookSearchIndex.tokenize(query);
+        final var scored = new ArrayList<Map.Entry<Long, Float>>();
+        for (final var book : books) {
+            var score = 0f;
+            for (final var token : tokens) {
+                var best = 0f;
+                for (final var term : BookSearchIndex.tokenize(book.title())) {
+                    best = Math.max(best, term.equals(token) ? 3f : term.startsWith(token) ? 2f : 0f);
+                }
+                for (final var term : BookSearchIndex.tokenize(book.author())) {
+                    best = Math.max(best, term.equals(token) ? 2f : term.startsWith(token) ? 1f : 0f);
+                }
+                if (best == 0f) {
+                    score = 0f;
+                    break;
+                }
+                score += best;
+            }
+            if (score > 0f) {
+                scored.add(Map.entry(book.id(), score));
+            }
+        }
+        return scored.stream()
+                .sorted(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static BookDto book(Long id, String title, String author, String isbn) {
+
+        return new BookDto(id, title, author, isbn, false, 0L);
+    }
+
+    private static List<Long> ids(List<BookDto> books) {
+
+        return books.stream().map(BookDto::id).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.library.service.impl;
+
+import com.library.cache.CatalogGeneration;
+import com.library.event.BookChangedEvent;
+import com.library.exception.BookNotFoundException;
+import com.library.rest.dto.BookDto;
+import com.library.rest.dto.PaginatedResult;
+import com.library.rest.dto.TotalMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Arrays;
+
+import static com.library.constants.CacheNames.ALL_BOOKS;
+import static com.library.constants.CacheNames.BOOKS;
+import static com.library.constants.CacheNames.BOOK_IDS_BY_ISBN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedBookServiceTest {
+
+    private static final int PAGE = 0;
+    private static final int SIZE = 2;
+
+    @Mock
+    private DefaultBookService delegate;
+
+    private final CatalogGeneration catalogGeneration = new CatalogGeneration();
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(ALL_BOOKS, BOOKS, BOOK_IDS_BY_ISBN);
+
+    private CachedBookService cachedBookService;
+
+    @BeforeEach
+    void setUp() {
+
+        cachedBookService = new CachedBookService(delegate, cacheManager, catalogGeneration,
+                TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void getAllBooks_is_served_from_cache_while_generation_is_unchanged() {
+
+        when(delegate.getAllBooks(PAGE, SIZE, TotalMode.EXACT)).thenReturn(page(1L, 2L));
+
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        final var actual = cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+
+        assertThat(actual).isEqualTo(page(1L, 2L));
+        verify(delegate, times(1)).getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+    }
+
+    @Test
+    void when_book_outside_page_is_loaned_then_page_survives() {
+
+        when(delegate.getAllBooks(PAGE, SIZE, TotalMode.EXACT)).thenReturn(page(1L, 2L));
+
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        catalogGeneration.advance(BookChangedEvent.loaned(3L));
+        catalogGeneration.advance(BookChangedEvent.returned(4L));
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+
+        verify(delegate, times(1)).getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+    }
+
+    @Test
+    void when_book_on_page_is_loaned_then_page_is_reloaded() {
+
+        when(delegate.getAllBooks(PAGE, SIZE, TotalMode.EXACT)).thenReturn(page(1L, 2L));
+
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        catalogGeneration.advance(BookChangedEvent.loaned(2L));
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+
+        verify(delegate, times(2)).getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+    }
+
+    @Test
+    void when_book_is_added_or_removed_then_page_is_reloaded() {
+
+        when(delegate.getAllBooks(PAGE, SIZE, TotalMode.EXACT)).thenReturn(page(1L, 2L));
+
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        catalogGeneration.advance(BookChangedEvent.removed(10L));
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+        catalogGeneration.advance(BookChangedEvent.added(new BookDto(11L, "title", "author", "isbn", false, 0L)));
+        cachedBookService.getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+
+        verify(delegate, times(3)).getAllBooks(PAGE, SIZE, TotalMode.EXACT);
+    }
+
+    @Test
+    void getBookByIsbn_is_served_from_cache_after_first_lookup() {
+
+        final var book = new BookDto(1L, "title", "author", "isbn", false, 0L);
+        when(delegate.getBookByIsbn("isbn")).thenReturn(book);
+
+        cachedBookService.getBookByIsbn("isbn");
+        final var actual = cachedBookService.getBookByIsbn("isbn");
+
+        assertThat(actual).isEqualTo(book);
+        verify(delegate, times(1)).getBookByIsbn("isbn");
+        verify(delegate, never()).getBookById(anyLong());
+    }
+
+    @Test
+    void when_isbn_mapping_points_to_deleted_book_then_isbn_is_looked_up_again() {
+
+        final var book = new BookDto(2L, "title", "author", "isbn", false, 0L);
+        cacheManager.getCache(BOOK_IDS_BY_ISBN).put("isbn", 1L);
+        when(delegate.getBookById(1L)).thenThrow(new BookNotFoundException("Book not found"));
+        when(delegate.getBookByIsbn("isbn")).thenReturn(book);
+
+        final var actual = cachedBookService.getBookByIsbn("isbn");
+
+        assertThat(actual).isEqualTo(book);
+        assertThat(cacheManager.getCache(BOOK_IDS_BY_ISBN).get("isbn", Long.class)).isEqualTo(2L);
+    }
+
+    private static PaginatedResult<BookDto> page(Long... ids) {
+
+        final var books = Arrays.stream(ids)
+                .map(id -> new BookDto(id, "title " + id, "author", "isbn " + id, false, 0L))
+                .toList();
+        return new PaginatedResult<>(books, 10L, PAGE, SIZE, true);
+    }
+}
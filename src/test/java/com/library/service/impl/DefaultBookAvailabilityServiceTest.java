@@ -0,0 +1,77 @@
+package com.library.service.impl;
+
+import com.library.availability.BookAvailability;
+import com.library.event.BookChangedEvent;
+import com.library.exception.BookNotFoundException;
+import com.library.repository.projection.BookLoanState;
+import com.library.rest.dto.BookAvailabilityDto;
+import com.library.rest.dto.BookDto;
+import com.library.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DefaultBookAvailabilityServiceTest {
+
+    private final BookAvailability bookAvailability = new BookAvailability();
+    private final BookSearchIndex bookSearchIndex = new BookSearchIndex();
+
+    private DefaultBookAvailabilityService bookAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+
+        final var books = List.of(
+                new BookDto(1L, "Dune", "Frank Herbert", "978-0-441-17271-9", false, 0L),
+                new BookDto(2L, "Dune Messiah", "Frank Herbert", "978-0-399-12168-0", true, 0L),
+                new BookDto(3L, "Children of Dune", "Frank Herbert", "978-0-399-12011-9", false, 0L),
+                new BookDto(4L, "God Emperor of Dune", "Frank Herbert", "978-0-399-12377-5", false, 0L));
+        bookSearchIndex.load(books);
+        bookAvailability.load(books.stream().map(book -> new BookLoanState(book.id(), book.isLoaned())).toList());
+        bookAvailabilityService = new DefaultBookAvailabilityService(bookAvailability, bookSearchIndex);
+    }
+
+    @Test
+    void getAvailability() {
+
+        assertThat(bookAvailabilityService.getAvailability(1L)).isEqualTo(new BookAvailabilityDto(1L, true));
+        assertThat(bookAvailabilityService.getAvailability(2L)).isEqualTo(new BookAvailabilityDto(2L, false));
+    }
+
+    @Test
+    void when_getAvailability_for_unknown_book_then_throw() {
+
+        assertThatThrownBy(() -> bookAvailabilityService.getAvailability(10L))
+                .isInstanceOf(BookNotFoundException.class)
+                .hasMessage("Book with id 10 not found");
+    }
+
+    @Test
+    void getAvailableBooks_pages_over_available_books() {
+
+        final var first = bookAvailabilityService.getAvailableBooks(null, 2);
+        assertThat(first.results()).extracting(BookDto::id).containsExactly(1L, 3L);
+        assertThat(first.nextCursor()).isNotNull();
+
+        final var second = bookAvailabilityService.getAvailableBooks(first.nextCursor(), 2);
+        assertThat(second.results()).extracting(BookDto::id).containsExactly(4L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void getAvailableBooks_follows_committed_loans() {
+
+        bookAvailability.apply(BookChangedEvent.loaned(1L));
+        bookAvailability.apply(BookChangedEvent.returned(2L));
+        bookSearchIndex.apply(BookChangedEvent.returned(2L));
+
+        final var result = bookAvailabilityService.getAvailableBooks(null, 10);
+
+        assertThat(result.results()).extracting(BookDto::id).containsExactly(2L, 3L, 4L);
+        assertThat(result.results()).extracting(BookDto::isLoaned).containsOnly(false);
+    }
+}
@@ -0,0 +1,136 @@
+package com.library.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.library.config.ImportProperties;
+import com.library.event.BookChangedEvent;
+import com.library.mapper.BookMapperImpl;
+import com.library.repository.BookRepository;
+import com.library.repository.entity.BookEntity;
+import com.library.rest.dto.BookImportResult;
+import com.library.rest.dto.ImportFormat;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultBookImportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private DefaultBookImportService importService;
+
+    @BeforeEach
+    void setUp() {
+
+        importService = new DefaultBookImportService(bookRepository, new BookMapperImpl(), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), TransactionOperations.withoutTransaction(),
+                eventPublisher, new ImportProperties(2, 10));
+    }
+
+    @Test
+    void importBooksFromNdjson() throws Exception {
+
+        final var input = """
+                {"title":"Dune","author":"Frank Herbert","isbn":"111"}
+                {"title":"Emma","author":"Jane Austen","isbn":"222"}
+
+                {"title":"Ulysses","author":"James Joyce","isbn":"333"}
+                """;
+        when(bookRepository.insertIgnoringDuplicates(anyList())).thenReturn(new int[]{1, 0}, new int[]{1});
+        when(bookRepository.findByIsbnIn(List.of("111")))
+                .thenReturn(List.of(new BookEntity(1L, "Dune", "Frank Herbert", "111", false, 0L)));
+        when(bookRepository.findByIsbnIn(List.of("333")))
+                .thenReturn(List.of(new BookEntity(3L, "Ulysses", "James Joyce", "333", false, 0L)));
+
+        final var result = importService.importBooks(stream(input), ImportFormat.NDJSON, StandardCharsets.UTF_8);
+
+        assertThat(result.received()).isEqualTo(3);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly(new BookImportResult.RowError(2L, "222", "ISBN already exists"));
+        verify(bookRepository, times(2)).insertIgnoringDuplicates(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void importBooksFromCsvRejectsInvalidRows() throws Exception {
+
+        final var input = """
+                isbn,title,author
+                111,Dune,Frank Herbert
+                222,,Jane Austen
+                """;
+        when(bookRepository.insertIgnoringDuplicates(anyList())).thenReturn(new int[]{1});
+        when(bookRepository.findByIsbnIn(List.of("111")))
+                .thenReturn(List.of(new BookEntity(1L, "Dune", "Frank Herbert", "111", false, 0L)));
+
+        final var result = importService.importBooks(stream(input), ImportFormat.CSV, StandardCharsets.UTF_8);
+
+        assertThat(result.received()).isEqualTo(2);
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).containsExactly(new BookImportResult.RowError(3L, "222", "Title is mandatory"));
+    }
+
+    @Test
+    void importBooksFromCsvWithQuotedHeaderInRequestCharset() throws Exception {
+
+        final var input = """
+                "isbn","title","author"
+                111,Café,"Dumas, Alexandre"
+                """;
+        final var books = ArgumentCaptor.<List<BookEntity>>captor();
+        when(bookRepository.insertIgnoringDuplicates(books.capture())).thenReturn(new int[]{1});
+
+        final var result = importService.importBooks(new ByteArrayInputStream(input.getBytes(StandardCharsets.ISO_8859_1)),
+                ImportFormat.CSV, StandardCharsets.ISO_8859_1);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(books.getValue()).singleElement()
+                .satisfies(book -> {
+                    assertThat(book.getIsbn()).isEqualTo("111");
+                    assertThat(book.getTitle()).isEqualTo("Café");
+                    assertThat(book.getAuthor()).isEqualTo("Dumas, Alexandre");
+                });
+    }
+
+    @Test
+    void importBooksRejectsMalformedLinesAndFailedBatches() throws Exception {
+
+        final var input = """
+                {"title":"Dune",
+                {"title":"Emma","author":"Jane Austen","isbn":"222"}
+                """;
+        when(bookRepository.insertIgnoringDuplicates(anyList())).thenThrow(new DataIntegrityViolationException("boom"));
+
+        final var result = importService.importBooks(stream(input), ImportFormat.NDJSON, StandardCharsets.UTF_8);
+
+        assertThat(result.imported()).isZero();
+        assertThat(result.rejected()).isEqualTo(2);
+        assertThat(result.errors()).extracting(BookImportResult.RowError::line).containsExactly(1L, 2L);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static ByteArrayInputStream stream(String input) {
+
+        return new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,11 +1,15 @@
 package com.library.service.impl;
 
+import com.library.event.BookChangedEvent;
 import com.library.exception.BookNotFoundException;
+import com.library.exception.InvalidCursorException;
 import com.library.mapper.BookMapper;
 import com.library.mapper.BookMapperImpl;
 import com.library.repository.BookRepository;
+import com.library.repository.TableStatistics;
 import com.library.repository.entity.BookEntity;
 import com.library.rest.dto.BookDto;
+import com.library.rest.dto.TotalMode;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,7 +17,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -33,6 +40,12 @@ class DefaultBookServiceTest {
     @Spy
     private BookMapper bookMapper = new BookMapperImpl();
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TableStatistics tableStatistics;
+
     @InjectMocks
     private DefaultBookService defaultBookService;
 
@@ -69,6 +82,31 @@ class DefaultBookServiceTest {
         verify(bookRepository, times(1)).findById(bookId);
     }
 
+    @Test
+    void getBookByIsbn() {
+
+        final var bookEntity = Instancio.create(BookEntity.class);
+
+        when(bookRepository.findByIsbn(bookEntity.getIsbn())).thenReturn(Optional.of(bookEntity));
+
+        final var bookDto = defaultBookService.getBookByIsbn(bookEntity.getIsbn());
+
+        assertThat(bookDto.id()).isEqualTo(bookEntity.getId());
+        assertThat(bookDto.isbn()).isEqualTo(bookEntity.getIsbn());
+    }
+
+    @Test
+    void when_getBookByIsbn_then_throw_exception() {
+
+        final var isbn = "978-0-441-17271-9";
+
+        when(bookRepository.findByIsbn(isbn)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> defaultBookService.getBookByIsbn(isbn))
+                .isInstanceOf(BookNotFoundException.class)
+                .hasMessageContaining(format("Book with ISBN {0} not found", isbn));
+    }
+
     @Test
     void addBook() {
 
@@ -86,18 +124,34 @@ class DefaultBookServiceTest {
         assertThat(savedBookDto.isLoaned()).isEqualTo(bookEntity.getIsLoaned());
 
         verify(bookRepository, times(1)).save(bookEntity);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.added(savedBookDto));
     }
 
     @Test
     void deleteBookById() {
 
+        final var bookId = 1L;
+        final var bookEntity = Instancio.create(BookEntity.class);
+
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(bookEntity));
+
+        defaultBookService.deleteBookById(bookId);
+
+        verify(bookRepository, times(1)).delete(bookEntity);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.removed(bookId));
+    }
+
+    @Test
+    void when_deleteBookById_of_missing_book_then_publish_nothing() {
+
         final var bookId = 1L;
 
-        doNothing().when(bookRepository).deleteById(bookId);
+        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
 
         defaultBookService.deleteBookById(bookId);
 
-        verify(bookRepository, times(1)).deleteById(bookId);
+        verify(bookRepository, never()).delete(any(BookEntity.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -108,7 +162,7 @@ class DefaultBookServiceTest {
 
         when(bookRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(bookEntity), pageable, 1L));
 
-        final var paginatedResult = defaultBookService.getAllBooks(pageable.getPageNumber(), pageable.getPageSize());
+        final var paginatedResult = defaultBookService.getAllBooks(pageable.getPageNumber(), pageable.getPageSize(), TotalMode.EXACT);
 
         assertThat(paginatedResult.results().size()).isEqualTo(1);
         assertThat(paginatedResult.pageNumber()).isEqualTo(pageable.getPageNumber());
@@ -124,4 +178,85 @@ class DefaultBookServiceTest {
 
         verify(bookRepository, times(1)).findAll(pageable);
     }
+
+    @Test
+    void getAllBooks_with_estimated_total() {
+
+        final var pageable = Pageable.ofSize(1).withPage(0);
+        final var bookEntity = Instancio.create(BookEntity.class);
+
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(bookEntity), pageable, true));
+        when(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).thenReturn(5_000_000L);
+
+        final var paginatedResult = defaultBookService.getAllBooks(pageable.getPageNumber(), pageable.getPageSize(), TotalMode.ESTIMATED);
+
+        assertThat(paginatedResult.results()).hasSize(1);
+        assertThat(paginatedResult.totalElements()).isEqualTo(5_000_000L);
+        assertThat(paginatedResult.hasNext()).isTrue();
+
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllBooks_with_estimated_total_before_the_first_estimate() {
+
+        final var pageable = Pageable.ofSize(1).withPage(0);
+
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(Instancio.create(BookEntity.class)), pageable, true));
+        when(tableStatistics.estimatedRowCount(TableStatistics.Table.BOOKS)).thenReturn(TableStatistics.UNKNOWN);
+
+        final var paginatedResult = defaultBookService.getAllBooks(pageable.getPageNumber(), pageable.getPageSize(), TotalMode.ESTIMATED);
+
+        assertThat(paginatedResult.totalElements()).isNull();
+        assertThat(paginatedResult.hasNext()).isTrue();
+    }
+
+    @Test
+    void getAllBooks_without_total() {
+
+        final var pageable = Pageable.ofSize(10).withPage(2);
+        final var bookEntity = Instancio.create(BookEntity.class);
+
+        when(bookRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(bookEntity), pageable, false));
+
+        final var paginatedResult = defaultBookService.getAllBooks(pageable.getPageNumber(), pageable.getPageSize(), TotalMode.NONE);
+
+        assertThat(paginatedResult.results()).hasSize(1);
+        assertThat(paginatedResult.totalElements()).isNull();
+        assertThat(paginatedResult.hasNext()).isFalse();
+        assertThat(paginatedResult.pageNumber()).isEqualTo(2);
+
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(tableStatistics);
+    }
+
+    @Test
+    void getBooksAfter() {
+
+        final var books = Instancio.ofList(BookEntity.class).size(3).create();
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(books);
+
+        final var firstPage = defaultBookService.getBooksAfter(null, 2);
+
+        assertThat(firstPage.results()).extracting(BookDto::id).containsExactly(books.get(0).getId(), books.get(1).getId());
+        assertThat(firstPage.pageSize()).isEqualTo(2);
+        assertThat(firstPage.nextCursor()).isNotBlank();
+
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(books.get(1).getId(), Limit.of(3))).thenReturn(List.of(books.get(2)));
+
+        final var lastPage = defaultBookService.getBooksAfter(firstPage.nextCursor(), 2);
+
+        assertThat(lastPage.results()).extracting(BookDto::id).containsExactly(books.get(2).getId());
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void when_getBooksAfter_with_invalid_cursor_then_throw_exception() {
+
+        assertThatThrownBy(() -> defaultBookService.getBooksAfter("not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+
+        verifyNoInteractions(bookRepository);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.library.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.library.mapper.BookMapperImpl;
+import com.library.mapper.LoanMapperImpl;
+import com.library.mapper.UserMapperImpl;
+import com.library.repository.BookRepository;
+import com.library.repository.LoanRepository;
+import com.library.repository.UserRepository;
+import com.library.repository.entity.BookEntity;
+import com.library.repository.entity.LoanEntity;
+import com.library.rest.dto.BookDto;
+import jakarta.persistence.EntityManager;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultExportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private DefaultExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+
+        exportService = new DefaultExportService(bookRepository, userRepository, loanRepository, new BookMapperImpl(),
+                new UserMapperImpl(), new LoanMapperImpl(), objectMapper, entityManager);
+    }
+
+    @Test
+    void exportBooks() throws Exception {
+
+        final var books = Instancio.ofList(BookEntity.class).size(3).create();
+        final var closed = new boolean[1];
+        when(bookRepository.streamAll()).thenReturn(books.stream().onClose(() -> closed[0] = true));
+        final var output = new ByteArrayOutputStream();
+
+        exportService.exportBooks(output);
+
+        final var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        for (var i = 0; i < lines.length; i++) {
+            assertThat(objectMapper.readValue(lines[i], BookDto.class).id()).isEqualTo(books.get(i).getId());
+        }
+        books.forEach(book -> verify(entityManager).detach(book));
+        assertThat(closed[0]).isTrue();
+    }
+
+    @Test
+    void exportLoansDetachesAssociations() throws Exception {
+
+        final var loan = Instancio.create(LoanEntity.class);
+        when(loanRepository.streamAll()).thenReturn(Stream.of(loan));
+        final var output = new ByteArrayOutputStream();
+
+        exportService.exportLoans(output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).contains("\"loanDate\"");
+        verify(entityManager).detach(loan);
+        verify(entityManager).detach(loan.getBook());
+        verify(entityManager).detach(loan.getUser());
+    }
+
+    @Test
+    void exportUsersWritesNothingForEmptyTable() throws Exception {
+
+        when(userRepository.streamAll()).thenReturn(Stream.empty());
+        final var output = new ByteArrayOutputStream();
+
+        exportService.exportUsers(output);
+
+        assertThat(output.size()).isZero();
+        verifyNoInteractions(entityManager);
+    }
+}
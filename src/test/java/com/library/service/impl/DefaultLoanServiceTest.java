@@ -1,6 +1,10 @@
 package com.library.service.impl;
 
+import com.library.config.LoanProperties;
+import com.library.event.BookChangedEvent;
+import com.library.event.LoanChangedEvent;
 import com.library.exception.BookAlreadyLoanedException;
+import com.library.exception.LoanAlreadyReturnedException;
 import com.library.exception.BookNotFoundException;
 import com.library.exception.LoanNotFoundException;
 import com.library.exception.UserNotFoundException;
@@ -8,10 +12,15 @@ import com.library.mapper.LoanMapper;
 import com.library.mapper.LoanMapperImpl;
 import com.library.repository.BookRepository;
 import com.library.repository.LoanRepository;
+import com.library.repository.TableStatistics;
 import com.library.repository.UserRepository;
 import com.library.repository.entity.BookEntity;
 import com.library.repository.entity.LoanEntity;
 import com.library.repository.entity.UserEntity;
+import com.library.repository.projection.LoanRow;
+import com.library.rest.dto.LoanDto;
+import com.library.rest.dto.LoanFilter;
+import com.library.rest.dto.TotalMode;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,11 +29,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.Optional;
 
 import static java.text.MessageFormat.format;
@@ -47,6 +59,15 @@ class DefaultLoanServiceTest {
     @Spy
     private LoanMapper loanMapper = new LoanMapperImpl();
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TableStatistics tableStatistics;
+
+    @Spy
+    private LoanProperties loanProperties = new LoanProperties(LoanProperties.CheckoutMode.LOCKING);
+
     @InjectMocks
     private DefaultLoanService defaultLoanService;
 
@@ -96,6 +117,8 @@ class DefaultLoanServiceTest {
         verify(bookRepository, times(1)).findByIdForUpdate(bookId);
         verify(loanRepository, times(1)).save(any(LoanEntity.class));
         verify(bookRepository, times(1)).save(loanedBookEntity);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.loaned(bookId));
+        verify(eventPublisher, times(1)).publishEvent(LoanChangedEvent.opened(null, capturedLoanDto.getDueDate()));
     }
 
     @Test
@@ -158,6 +181,142 @@ class DefaultLoanServiceTest {
         verifyNoMoreInteractions(bookRepository);
     }
 
+    @Test
+    void loanBook_with_conditional_checkout() {
+
+        final var userId = 10L;
+        final var userEntity = Instancio.create(UserEntity.class);
+        final var bookId = 100L;
+        final var bookEntity = Instancio.create(BookEntity.class);
+        bookEntity.setIsLoaned(false);
+        bookEntity.setVersion(3L);
+        final var loanDays = 30;
+
+        doReturn(LoanProperties.CheckoutMode.CONDITIONAL).when(loanProperties).checkoutMode();
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(bookEntity));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(bookRepository.markLoaned(bookId)).thenReturn(1);
+
+        final var savedLoanDto = defaultLoanService.loanBook(bookId, userId, loanDays);
+
+        assertThat(savedLoanDto.book().id()).isEqualTo(bookEntity.getId());
+        assertThat(savedLoanDto.book().isLoaned()).isTrue();
+        assertThat(savedLoanDto.book().version()).isEqualTo(4L);
+        assertThat(savedLoanDto.user().id()).isEqualTo(userEntity.getId());
+
+        final var inOrder = inOrder(bookRepository, loanRepository);
+        inOrder.verify(bookRepository).markLoaned(bookId);
+        inOrder.verify(loanRepository).save(any(LoanEntity.class));
+        verify(bookRepository, never()).findByIdForUpdate(any());
+        verify(bookRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.loaned(bookId));
+    }
+
+    @Test
+    void when_loanBook_with_conditional_checkout_then_throw_bookAlreadyLoanedException() {
+
+        final var userId = 10L;
+        final var bookId = 100L;
+
+        doReturn(LoanProperties.CheckoutMode.CONDITIONAL).when(loanProperties).checkoutMode();
+        when(bookRepository.findById(bookId)).thenReturn(Optional.of(Instancio.create(BookEntity.class)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(Instancio.create(UserEntity.class)));
+        when(bookRepository.markLoaned(bookId)).thenReturn(0);
+
+        assertThatThrownBy(() -> defaultLoanService.loanBook(bookId, userId, 30))
+                .isInstanceOf(BookAlreadyLoanedException.class)
+                .hasMessageContaining(format("Book with id {0} is already loaned", bookId));
+
+        verifyNoInteractions(loanRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void when_loanBook_with_conditional_checkout_then_throw_bookNotFoundException() {
+
+        final var bookId = 100L;
+
+        doReturn(LoanProperties.CheckoutMode.CONDITIONAL).when(loanProperties).checkoutMode();
+        when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> defaultLoanService.loanBook(bookId, 10L, 30))
+                .isInstanceOf(BookNotFoundException.class)
+                .hasMessageContaining(format("Book with id {0} not found", bookId));
+
+        verify(bookRepository, never()).markLoaned(any());
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    void loanBooks_reports_each_book() {
+
+        final var userId = 10L;
+        final var userEntity = Instancio.create(UserEntity.class);
+        final var available = BookEntity.builder().id(1L).isLoaned(false).build();
+        final var loaned = BookEntity.builder().id(2L).isLoaned(true).build();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(bookRepository.findAllByIdForUpdate(new TreeSet<>(Set.of(1L, 2L, 3L)))).thenReturn(List.of(available, loaned));
+        doAnswer(invocation -> {
+            invocation.<List<LoanEntity>>getArgument(0).forEach(loan -> loan.setId(50L));
+            return null;
+        }).when(loanRepository).insertAll(anyList());
+
+        final var items = defaultLoanService.loanBooks(List.of(3L, 2L, 1L, 1L), userId, 14);
+
+        assertThat(items).extracting(item -> item.id()).containsExactly(3L, 2L, 1L, 1L);
+        assertThat(items.get(0).error()).isEqualTo(format("Book with id {0} not found", 3L));
+        assertThat(items.get(1).error()).isEqualTo(format("Book with id {0} is already loaned", 2L));
+        assertThat(items.get(2).error()).isNull();
+        assertThat(items.get(2).loan().id()).isEqualTo(50);
+        assertThat(items.get(2).loan().book().isLoaned()).isTrue();
+        assertThat(items.get(3).error()).isEqualTo(format("Book with id {0} is already loaned", 1L));
+
+        final var loansCaptor = ArgumentCaptor.forClass(List.class);
+        verify(loanRepository, times(1)).insertAll(loansCaptor.capture());
+        assertThat(loansCaptor.getValue()).hasSize(1);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.loaned(1L));
+        verify(eventPublisher, times(1)).publishEvent(any(LoanChangedEvent.class));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void when_loanBooks_then_throw_userNotFoundException() {
+
+        final var userId = 10L;
+
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> defaultLoanService.loanBooks(List.of(1L), userId, 14))
+                .isInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining(format("User with id {0} not found", userId));
+
+        verifyNoInteractions(bookRepository);
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    void refundBooks_reports_each_loan() {
+
+        final var book = BookEntity.builder().id(7L).isLoaned(true).build();
+        final var open = LoanEntity.builder().id(1L).book(book).user(Instancio.create(UserEntity.class)).build();
+        final var returned = LoanEntity.builder().id(2L).book(BookEntity.builder().id(8L).build())
+                .returnDate(ZonedDateTime.now()).build();
+
+        when(loanRepository.findAllByIdForUpdate(new TreeSet<>(Set.of(1L, 2L, 3L)))).thenReturn(List.of(open, returned));
+        when(bookRepository.findAllByIdForUpdate(new TreeSet<>(Set.of(7L)))).thenReturn(List.of(book));
+
+        final var items = defaultLoanService.refundBooks(List.of(1L, 2L, 3L));
+
+        assertThat(items.get(0).error()).isNull();
+        assertThat(items.get(0).loan().returnDate()).isNotNull();
+        assertThat(items.get(1).error()).isEqualTo(format("Loan with id {0} is already returned", 2L));
+        assertThat(items.get(2).error()).isEqualTo(format("Loan with id {0} not found", 3L));
+        assertThat(book.getIsLoaned()).isFalse();
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.returned(7L));
+        verify(eventPublisher, times(1)).publishEvent(LoanChangedEvent.closed(1L));
+    }
+
     @Test
     void refundBook() {
 
@@ -176,7 +335,7 @@ class DefaultLoanServiceTest {
         final var loanCaptor = ArgumentCaptor.forClass(LoanEntity.class);
         final var notLoanedBookEntity = bookEntity.toBuilder().isLoaned(false).build();
 
-        when(loanRepository.findById(loanId)).thenReturn(Optional.of(loanEntity));
+        when(loanRepository.findByIdForUpdate(loanId)).thenReturn(Optional.of(loanEntity));
         when(bookRepository.findByIdForUpdate(bookId)).thenReturn(bookEntity);
         when(loanRepository.save(loanCaptor.capture())).thenReturn(loanEntity);
         when(bookRepository.save(notLoanedBookEntity)).thenReturn(bookEntity);
@@ -202,9 +361,11 @@ class DefaultLoanServiceTest {
 
         verifyNoInteractions(userRepository);
         verify(bookRepository, times(1)).findByIdForUpdate(bookId);
-        verify(loanRepository, times(1)).findById(loanId);
+        verify(loanRepository, times(1)).findByIdForUpdate(loanId);
         verify(loanRepository, times(1)).save(any(LoanEntity.class));
         verify(bookRepository, times(1)).save(notLoanedBookEntity);
+        verify(eventPublisher, times(1)).publishEvent(BookChangedEvent.returned(bookId));
+        verify(eventPublisher, times(1)).publishEvent(LoanChangedEvent.closed(loanId));
     }
 
     @Test
@@ -212,55 +373,101 @@ class DefaultLoanServiceTest {
 
         final var loanId = 10L;
 
-        when(loanRepository.findById(loanId)).thenReturn(Optional.empty());
+        when(loanRepository.findByIdForUpdate(loanId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> defaultLoanService.refundBook(loanId))
                 .isInstanceOf(LoanNotFoundException.class)
                 .hasMessageContaining(format("Loan with id {0} not found", loanId));
 
-        verify(loanRepository, times(1)).findById(loanId);
+        verify(loanRepository, times(1)).findByIdForUpdate(loanId);
         verifyNoMoreInteractions(loanRepository);
         verifyNoInteractions(userRepository);
         verifyNoMoreInteractions(bookRepository);
     }
 
+    @Test
+    void when_refundBook_of_returned_loan_then_throw_loanAlreadyReturnedException() {
+
+        final var loanId = 10L;
+        final var loanEntity = LoanEntity.builder().id(loanId).book(BookEntity.builder().id(7L).build())
+                .returnDate(ZonedDateTime.now()).build();
+
+        when(loanRepository.findByIdForUpdate(loanId)).thenReturn(Optional.of(loanEntity));
+
+        assertThatThrownBy(() -> defaultLoanService.refundBook(loanId))
+                .isInstanceOf(LoanAlreadyReturnedException.class)
+                .hasMessageContaining(format("Loan with id {0} is already returned", loanId));
+
+        verifyNoInteractions(bookRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void getAllLoans() {
 
         final var pageable = Pageable.ofSize(100).withPage(1);
-        final var loanEntity = Instancio.create(LoanEntity.class);
+        final var loanRow = Instancio.create(LoanRow.class);
 
-        when(loanRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(loanEntity), pageable, 1L));
+        when(loanRepository.findRows(LoanFilter.none(), pageable)).thenReturn(new PageImpl<>(List.of(loanRow), pageable, 1L));
 
-        final var paginatedResult = defaultLoanService.getAllLoans(pageable.getPageNumber(), pageable.getPageSize());
+        final var paginatedResult = defaultLoanService.getAllLoans(LoanFilter.none(), pageable.getPageNumber(), pageable.getPageSize(), TotalMode.EXACT);
 
         assertThat(paginatedResult.results().size()).isEqualTo(1);
         assertThat(paginatedResult.pageNumber()).isEqualTo(pageable.getPageNumber());
         assertThat(paginatedResult.pageSize()).isEqualTo(pageable.getPageSize());
 
         final var loanDto = paginatedResult.results().getFirst();
-        assertThat(loanDto.loanDate()).isEqualTo(loanEntity.getLoanDate());
-        assertThat(loanDto.dueDate()).isEqualTo(loanEntity.getDueDate());
-        assertThat(loanDto.returnDate()).isEqualTo(loanEntity.getReturnDate());
+        assertThat(loanDto.loanDate()).isEqualTo(loanRow.loanDate());
+        assertThat(loanDto.dueDate()).isEqualTo(loanRow.dueDate());
+        assertThat(loanDto.returnDate()).isEqualTo(loanRow.returnDate());
 
         final var bookDto = loanDto.book();
-        final var bookEntity = loanEntity.getBook();
-        assertThat(bookDto.id()).isEqualTo(bookEntity.getId());
-        assertThat(bookDto.title()).isEqualTo(bookEntity.getTitle());
-        assertThat(bookDto.author()).isEqualTo(bookEntity.getAuthor());
-        assertThat(bookDto.isbn()).isEqualTo(bookEntity.getIsbn());
-        assertThat(bookDto.isLoaned()).isEqualTo(bookEntity.getIsLoaned());
+        assertThat(bookDto.id()).isEqualTo(loanRow.bookId());
+        assertThat(bookDto.title()).isEqualTo(loanRow.bookTitle());
+        assertThat(bookDto.author()).isEqualTo(loanRow.bookAuthor());
+        assertThat(bookDto.isbn()).isEqualTo(loanRow.bookIsbn());
+        assertThat(bookDto.isLoaned()).isEqualTo(loanRow.bookIsLoaned());
 
         final var userDto = loanDto.user();
-        final var userEntity = loanEntity.getUser();
-        assertThat(userDto.id()).isEqualTo(userEntity.getId());
-        assertThat(userDto.firstName()).isEqualTo(userEntity.getFirstName());
-        assertThat(userDto.lastName()).isEqualTo(userEntity.getLastName());
-        assertThat(userDto.email()).isEqualTo(userEntity.getEmail());
+        assertThat(userDto.id()).isEqualTo(loanRow.userId());
+        assertThat(userDto.firstName()).isEqualTo(loanRow.userFirstName());
+        assertThat(userDto.lastName()).isEqualTo(loanRow.userLastName());
+        assertThat(userDto.email()).isEqualTo(loanRow.userEmail());
 
-        verify(loanRepository, times(1)).findAll(pageable);
+        verify(loanRepository, times(1)).findRows(LoanFilter.none(), pageable);
         verifyNoMoreInteractions(loanRepository);
         verifyNoInteractions(userRepository);
         verifyNoMoreInteractions(bookRepository);
     }
+
+    @Test
+    void getAllLoans_with_filter_counts_exactly_instead_of_estimating() {
+
+        final var pageable = Pageable.ofSize(10).withPage(0);
+        final var filter = new LoanFilter(7L, null, true, null);
+
+        when(loanRepository.findRows(filter, pageable)).thenReturn(new PageImpl<>(List.of(), pageable, 0L));
+
+        final var paginatedResult = defaultLoanService.getAllLoans(filter, 0, 10, TotalMode.ESTIMATED);
+
+        assertThat(paginatedResult.totalElements()).isZero();
+        verifyNoInteractions(tableStatistics);
+    }
+
+    @Test
+    void getLoansAfter() {
+
+        final var loans = Instancio.ofList(LoanRow.class).size(2).create();
+
+        when(loanRepository.findRowsAfter(LoanFilter.none(), 0L, 2)).thenReturn(loans);
+
+        final var cursorResult = defaultLoanService.getLoansAfter(LoanFilter.none(), null, 1);
+
+        assertThat(cursorResult.results()).hasSize(1);
+        assertThat(cursorResult.results()).extracting(LoanDto::loanDate).containsExactly(loans.getFirst().loanDate());
+        assertThat(cursorResult.nextCursor()).isNotBlank();
+
+        verifyNoInteractions(userRepository);
+        verifyNoInteractions(bookRepository);
+    }
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package com.library.service.impl;
 
+import com.library.event.UserChangedEvent;
 import com.library.exception.UserNotFoundException;
 import com.library.mapper.UserMapper;
 import com.library.mapper.UserMapperImpl;
+import com.library.repository.TableStatistics;
 import com.library.repository.UserRepository;
 import com.library.repository.entity.UserEntity;
+import com.library.rest.dto.TotalMode;
 import com.library.rest.dto.UserDto;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.Test;
@@ -13,6 +16,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
@@ -33,6 +38,12 @@ class DefaultUserServiceTest {
     @Spy
     private UserMapper userMapper = new UserMapperImpl();
 
+    @Mock
+    private TableStatistics tableStatistics;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private DefaultUserService defaultUserService;
 
@@ -84,18 +95,34 @@ class DefaultUserServiceTest {
         assertThat(savedUserDto.email()).isEqualTo(userEntity.getEmail());
 
         verify(userRepository, times(1)).save(userEntity);
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.added(savedUserDto.id()));
     }
 
     @Test
     void deleteUserById() {
 
         final var userId = 1L;
+        final var userEntity = Instancio.create(UserEntity.class);
 
-        doNothing().when(userRepository).deleteById(userId);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
 
         defaultUserService.deleteUserById(userId);
 
-        verify(userRepository, times(1)).deleteById(userId);
+        verify(userRepository, times(1)).delete(userEntity);
+        verify(eventPublisher, times(1)).publishEvent(UserChangedEvent.removed(userId));
+    }
+
+    @Test
+    void when_deleteUserById_of_missing_user_then_publish_nothing() {
+
+        final var userId = 1L;
+
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        defaultUserService.deleteUserById(userId);
+
+        verify(userRepository, never()).delete(any(UserEntity.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -106,7 +133,7 @@ class DefaultUserServiceTest {
 
         when(userRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(userEntity), pageable, 1L));
 
-        final var paginatedResult = defaultUserService.getAllUsers(pageable.getPageNumber(), pageable.getPageSize());
+        final var paginatedResult = defaultUserService.getAllUsers(pageable.getPageNumber(), pageable.getPageSize(), TotalMode.EXACT);
 
         assertThat(paginatedResult.results().size()).isEqualTo(1);
         assertThat(paginatedResult.pageNumber()).isEqualTo(pageable.getPageNumber());
@@ -121,4 +148,18 @@ class DefaultUserServiceTest {
 
         verify(userRepository, times(1)).findAll(pageable);
     }
+
+    @Test
+    void getUsersAfter() {
+
+        final var users = Instancio.ofList(UserEntity.class).size(2).create();
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(users);
+
+        final var cursorResult = defaultUserService.getUsersAfter("", 2);
+
+        assertThat(cursorResult.results()).extracting(UserDto::id).containsExactly(users.get(0).getId(), users.get(1).getId());
+        assertThat(cursorResult.nextCursor()).isNull();
+        assertThat(cursorResult.pageSize()).isEqualTo(2);
+    }
 }
\ No newline at end of file
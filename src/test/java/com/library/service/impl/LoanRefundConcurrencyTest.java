@@ -0,0 +1,100 @@
+package com.library.service.impl;
+
+import com.library.rest.dto.LoanBatchItem;
+import com.library.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refunds racing each other on one loan, against a real database so that the row locks are in play.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class LoanRefundConcurrencyTest {
+
+    private static final int REFUNDS = 4;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSource(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:refunds;MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        registry.add("spring.datasource.username", () -> "sa");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
+        registry.add("spring.jpa.database", () -> "h2");
+        registry.add("spring.sql.init.mode", () -> "never");
+    }
+
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.update("delete from loans");
+        jdbcTemplate.update("delete from books");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into books (id, title, author, isbn, is_loaned) values (1, 'Dune', 'Frank Herbert', '978-0-441-17271', false)");
+        jdbcTemplate.update("insert into users (id, first_name, last_name, email) values (1, 'Paul', 'Atreides', 'paul@arrakis.org')");
+    }
+
+    @Test
+    void concurrent_batch_refunds_of_one_loan_return_it_once() throws Exception {
+
+        final var loanId = loanService.loanBook(1L, 1L, 14).id().longValue();
+
+        final var results = race(() -> loanService.refundBooks(List.of(loanId)).getFirst());
+
+        assertThat(results).filteredOn(item -> item.error() == null).hasSize(1);
+        assertThat(results).filteredOn(item -> item.error() != null).hasSize(REFUNDS - 1)
+                .allSatisfy(item -> assertThat(item.error()).contains("already returned"));
+    }
+
+    @Test
+    void late_refund_does_not_release_the_books_next_loan() throws Exception {
+
+        final var first = loanService.loanBook(1L, 1L, 14).id().longValue();
+        loanService.refundBook(first);
+        loanService.loanBook(1L, 1L, 14);
+
+        final var results = race(() -> loanService.refundBooks(List.of(first)).getFirst());
+
+        assertThat(results).allSatisfy(item -> assertThat(item.error()).contains("already returned"));
+        assertThat(jdbcTemplate.queryForObject("select is_loaned from books where id = 1", Boolean.class)).isTrue();
+    }
+
+    private static List<LoanBatchItem> race(Callable<LoanBatchItem> refund) throws Exception {
+
+        final var barrier = new CyclicBarrier(REFUNDS);
+        try (var executor = Executors.newFixedThreadPool(REFUNDS)) {
+            final var futures = new ArrayList<Future<LoanBatchItem>>();
+            for (var i = 0; i < REFUNDS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return refund.call();
+                }));
+            }
+            final var results = new ArrayList<LoanBatchItem>();
+            for (final var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+    }
+}
@@ -5,6 +5,7 @@ CREATE TABLE IF NOT EXISTS books
     author character varying(255) NOT NULL,
     isbn character varying(255) NOT NULL,
     is_loaned boolean NOT NULL DEFAULT false,
+    version bigint NOT NULL DEFAULT 0,
     CONSTRAINT books_pkey PRIMARY KEY (id),
     CONSTRAINT books_isbn_key UNIQUE (isbn)
     );